@@ -0,0 +1,66 @@
+#!/bin/bash
+# Compares platform threads (default) and virtual threads for one service at 5k concurrent requests.
+#
+# For each mode the service is rebuilt and restarted, warmed up, then hit by `hey`
+# running inside the compose network. Throughput and latency come from hey; memory
+# and live threads are read from docker stats and the actuator while the load runs.
+#
+# Usage: ./benchmark_virtual_threads.sh [service] [path] [requests]
+#   e.g. ./benchmark_virtual_threads.sh order-service "/api/orders?limit=20" 100000
+
+SERVICE=${1:-order-service}
+REQUEST_PATH=${2:-/api/orders?limit=20}
+REQUESTS=${3:-100000}
+CONCURRENCY=${CONCURRENCY:-5000}
+NETWORK=${NETWORK:-ecommerce-microservices_ecommerce-net}
+
+case "$SERVICE" in
+    order-service) PORT=8082 ;;
+    client-service) PORT=8084 ;;
+    payment-service) PORT=8086 ;;
+    *) echo "❌ Unknown service: $SERVICE"; exit 1 ;;
+esac
+TARGET="http://$SERVICE:$PORT$REQUEST_PATH"
+METRICS="http://localhost:$PORT/actuator/metrics"
+
+start_service() {
+    echo "🔨 Starting $SERVICE ($1 threads)..."
+    if [ "$1" = "virtual" ]; then
+        docker-compose -f docker-compose.yml -f docker-compose.virtual-threads.yml up -d --build "$SERVICE"
+    else
+        docker-compose up -d --build "$SERVICE"
+    fi
+    until curl -s "http://localhost:$PORT/actuator/health" | grep -q '"UP"'; do sleep 2; done
+}
+
+metric() {
+    curl -s "$METRICS/$1" | grep -o '"value":[0-9.E]*' | head -1 | cut -d: -f2
+}
+
+run() {
+    local mode=$1
+    start_service "$mode"
+    docker run --rm --network "$NETWORK" williamyeh/hey -n 5000 -c 100 "$TARGET" > /dev/null
+
+    local container
+    container=$(docker-compose ps -q "$SERVICE")
+    docker run --rm --network "$NETWORK" williamyeh/hey -n "$REQUESTS" -c "$CONCURRENCY" "$TARGET" > "/tmp/hey-$mode.txt" &
+    local hey_pid=$!
+    sleep 5
+    local memory threads heap
+    memory=$(docker stats --no-stream --format "{{.MemUsage}}" "$container")
+    threads=$(metric jvm.threads.live)
+    heap=$(metric "jvm.memory.used?tag=area:heap")
+    wait "$hey_pid"
+
+    echo -e "\n📊 $mode threads"
+    grep -E "Requests/sec|Average|Slowest" "/tmp/hey-$mode.txt"
+    grep -A12 "Latency distribution" "/tmp/hey-$mode.txt" | grep -E "50%|95%|99%"
+    grep -A5 "Status code distribution" "/tmp/hey-$mode.txt" | grep "\["
+    echo "   Container memory under load: $memory"
+    echo "   JVM live threads: ${threads:-n/a}, heap used: ${heap:-n/a} bytes"
+}
+
+run platform
+run virtual
+start_service platform > /dev/null
@@ -0,0 +1,23 @@
+package com.ecommerce.client.service.config;
+
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+  // Fanout: every subscribing service instance binds its own queue
+  public static final String CLIENT_EVENTS_EXCHANGE = "clientEventsExchange";
+
+  @Bean
+  public FanoutExchange clientEventsExchange() {
+    return new FanoutExchange(CLIENT_EVENTS_EXCHANGE);
+  }
+
+  @Bean
+  public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
+    return new Jackson2JsonMessageConverter();
+  }
+}
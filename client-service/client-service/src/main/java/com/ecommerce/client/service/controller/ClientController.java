@@ -1,11 +1,14 @@
 package com.ecommerce.client.service.controller;
 
+import com.ecommerce.client.service.dto.ClientEvent;
 import com.ecommerce.client.service.dto.ClientRequest;
 import com.ecommerce.client.service.model.Client;
 import com.ecommerce.client.service.repository.ClientRepository;
+import com.ecommerce.client.service.service.ClientEventPublisher;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.List;
@@ -14,15 +17,30 @@ import java.util.List;
 @RequestMapping("/api/clients")
 public class ClientController {
 
+  private static final int MAX_BATCH_IDS = 200;
+
   private final ClientRepository repo;
+  private final ClientEventPublisher events;
 
-  public ClientController(ClientRepository repo) {
+  public ClientController(ClientRepository repo, ClientEventPublisher events) {
     this.repo = repo;
+    this.events = events;
   }
 
   @GetMapping
   public List<Client> all() { return repo.findAll(); }
 
+  /**
+   * GET /api/clients/batch?ids=1,2,3 - Several clients in one call (unknown ids are left out)
+   */
+  @GetMapping("/batch")
+  public List<Client> batch(@RequestParam List<Long> ids) {
+    if (ids.size() > MAX_BATCH_IDS) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per batch");
+    }
+    return repo.findAllById(ids);
+  }
+
   @GetMapping("/{id}")
   public Client one(@PathVariable Long id) {
     return repo.findById(id).orElseThrow(() -> new RuntimeException("Client not found"));
@@ -50,12 +68,17 @@ public class ClientController {
     if (req.email() != null && !req.email().isBlank()) c.setEmail(req.email());
     if (req.phone() != null) c.setPhone(req.phone());
     if (req.address() != null) c.setAddress(req.address());
-    return repo.save(c);
+    Client saved = repo.save(c);
+    events.publish(ClientEvent.UPDATED, id);
+    return saved;
   }
 
   @DeleteMapping("/{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public void delete(@PathVariable Long id) { repo.deleteById(id); }
+  public void delete(@PathVariable Long id) {
+    repo.deleteById(id);
+    events.publish(ClientEvent.DELETED, id);
+  }
 
   @PatchMapping("/{id}/password")
   public void updatePassword(@PathVariable Long id, @RequestBody java.util.Map<String, String> body) {
@@ -0,0 +1,13 @@
+package com.ecommerce.client.service.dto;
+
+/**
+ * Published when a client profile changes, so other services can drop
+ * cached copies. type is UPDATED or DELETED.
+ */
+public record ClientEvent(
+  String type,
+  Long clientId
+) {
+  public static final String UPDATED = "UPDATED";
+  public static final String DELETED = "DELETED";
+}
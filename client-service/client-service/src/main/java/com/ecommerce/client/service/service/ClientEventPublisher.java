@@ -0,0 +1,25 @@
+package com.ecommerce.client.service.service;
+
+import com.ecommerce.client.service.config.RabbitMQConfig;
+import com.ecommerce.client.service.dto.ClientEvent;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ClientEventPublisher {
+
+  private final RabbitTemplate rabbitTemplate;
+
+  public ClientEventPublisher(RabbitTemplate rabbitTemplate) {
+    this.rabbitTemplate = rabbitTemplate;
+  }
+
+  public void publish(String type, Long clientId) {
+    try {
+      rabbitTemplate.convertAndSend(RabbitMQConfig.CLIENT_EVENTS_EXCHANGE, "", new ClientEvent(type, clientId));
+    } catch (Exception e) {
+      // Subscribers' caches expire on their own; the change itself is already saved
+      System.err.println("⚠️ Failed to publish client " + type + " event for client #" + clientId + ": " + e.getMessage());
+    }
+  }
+}
@@ -20,7 +20,7 @@ export interface Client {
   password?: string;
 }
 
-export type OrderStatus = 'PENDING' | 'CREATED' | 'PAID' | 'PAYMENT_FAILED' | 'CONFIRMED' | 'SHIPPED' | 'DELIVERED' | 'CANCELED';
+export type OrderStatus = 'PENDING' | 'CREATED' | 'PAID' | 'PAYMENT_FAILED' | 'CONFIRMED' | 'SHIPPED' | 'DELIVERED' | 'CANCELED' | 'NEEDS_REVIEW';
 
 export interface Order {
   id?: number;
@@ -29,6 +29,34 @@ export interface Order {
   quantity: number;
   totalPrice?: number | null;
   status?: OrderStatus;
+  createdAt?: string;
+}
+
+export interface OrderPage {
+  items: Order[];
+  nextCursor: string | null;
+}
+
+export interface ClientOrderSummary {
+  clientId: number;
+  orderCount: number;
+  lifetimeSpend: number;
+  statusCounts: Record<string, number>;
+  recentOrders: Order[];
+}
+
+export interface BulkStatusResult {
+  updated: number;
+  orderIds: number[];
+  notificationsQueued: number;
+  hasMore: boolean;
+}
+
+export interface OrderFilter {
+  status?: string;
+  clientId?: number;
+  cursor?: string | null;
+  limit?: number;
 }
 
 export interface NotificationMessage {
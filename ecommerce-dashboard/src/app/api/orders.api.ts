@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
-import { Order } from './api.models';
+import { BulkStatusResult, ClientOrderSummary, Order, OrderFilter, OrderPage } from './api.models';
 
 @Injectable({ providedIn: 'root' })
 export class OrdersApi {
@@ -8,7 +8,20 @@ export class OrdersApi {
 
   constructor(private http: HttpClient) { }
 
-  list() { return this.http.get<Order[]>(this.base); }
+  list() { return this.http.get<Order[]>(this.base, { params: { unpaged: 'true' } }); }
+
+  // Newest first; pass the returned nextCursor to get the following page
+  page(filter: OrderFilter = {}) {
+    return this.http.get<OrderPage>(this.base, { params: this.filterParams(filter) });
+  }
+
+  clientSummary(clientId: number) {
+    return this.http.get<ClientOrderSummary>(`${this.base}/clients/${clientId}/summary`);
+  }
+
+  count(filter: OrderFilter = {}) {
+    return this.http.get<number>(`${this.base}/count`, { params: this.filterParams(filter) });
+  }
 
   // ✅ match backend: POST /api/orders?productId=...&quantity=...
   create(productId: number, quantity: number, clientId: number) {
@@ -24,5 +37,19 @@ export class OrdersApi {
     return this.http.patch<Order>(`${this.base}/${orderId}/status`, null, { params });
   }
 
+  // Moves every order in `from` to `to` in one request (up to the server's row limit)
+  bulkUpdateStatus(from: string, to: string) {
+    return this.http.patch<BulkStatusResult>(`${this.base}/status`, { from, to });
+  }
+
   delete(id: number) { return this.http.delete<void>(`${this.base}/${id}`); }
+
+  private filterParams(filter: OrderFilter) {
+    let params = new HttpParams();
+    if (filter.status) params = params.set('status', filter.status);
+    if (filter.clientId != null) params = params.set('clientId', String(filter.clientId));
+    if (filter.cursor) params = params.set('cursor', filter.cursor);
+    if (filter.limit) params = params.set('limit', String(filter.limit));
+    return params;
+  }
 }
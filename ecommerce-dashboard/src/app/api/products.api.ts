@@ -8,7 +8,7 @@ export class ProductsApi {
 
   constructor(private http: HttpClient) { }
 
-  list() { return this.http.get<Product[]>(this.base); }
+  list() { return this.http.get<Product[]>(this.base, { params: { unpaged: 'true' } }); }
   create(p: Product) { return this.http.post<Product>(this.base, p); }
   update(id: number, p: Product) { return this.http.put<Product>(`${this.base}/${id}`, p); }
   delete(id: number) { return this.http.delete<void>(`${this.base}/${id}`); }
@@ -218,7 +218,7 @@ export class DashboardComponent {
 
   constructor(products: ProductsApi, orders: OrdersApi, clients: ClientsApi) {
     products.list().subscribe({ next: v => this.productsCount.set(v.length), error: () => this.productsCount.set(0) });
-    orders.list().subscribe({ next: v => this.ordersCount.set(v.length), error: () => this.ordersCount.set(0) });
+    orders.count().subscribe({ next: v => this.ordersCount.set(v), error: () => this.ordersCount.set(0) });
     clients.list().subscribe({ next: v => this.clientsCount.set(v.length), error: () => this.clientsCount.set(0) });
   }
 }
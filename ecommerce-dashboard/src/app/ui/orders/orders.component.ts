@@ -7,7 +7,7 @@ import { ClientsApi } from '../../api/clients.api';
 import { ProductsApi } from '../../api/products.api';
 import { AuthService } from '../../core/auth/auth.service';
 
-import { Order, Client, Product } from '../../api/api.models';
+import { Order, Client, Product, ClientOrderSummary } from '../../api/api.models';
 
 import { MatCardModule } from '@angular/material/card';
 import { MatButtonModule } from '@angular/material/button';
@@ -78,6 +78,18 @@ import { MatSelectModule } from '@angular/material/select';
        <!-- Orders List Panel -->
        <div class="glass-panel list-panel">
          <h2>Active Orders</h2>
+         <p class="order-meta" *ngIf="summary() as s">
+           {{ s.orderCount }} orders · {{ s.lifetimeSpend | currency:'MAD ':'symbol':'1.2-2' }} spent
+         </p>
+         <div class="form-group">
+           <select [(ngModel)]="statusFilter" (ngModelChange)="loadOrders()">
+             <option value="">All statuses</option>
+             <option *ngFor="let s of statuses" [value]="s">{{ s }}</option>
+           </select>
+         </div>
+         <button class="btn-primary" *ngIf="isAdmin() && nextStatus[statusFilter]" (click)="advanceAll()">
+           Move all {{ statusFilter }} to {{ nextStatus[statusFilter] }}
+         </button>
          
          <div class="empty-state" *ngIf="items().length === 0">
           <div class="empty-icon">LIST</div>
@@ -141,6 +153,10 @@ import { MatSelectModule } from '@angular/material/select';
             </button>
           </div>
         </div>
+
+        <button class="btn-primary" *ngIf="nextCursor()" (click)="loadMore()">
+          Load more
+        </button>
       </div>
     </div>
   </div>
@@ -346,6 +362,11 @@ import { MatSelectModule } from '@angular/material/select';
 })
 export class OrdersComponent {
   items = signal<Order[]>([]);
+  nextCursor = signal<string | null>(null);
+  summary = signal<ClientOrderSummary | null>(null);
+  statusFilter = '';
+  readonly nextStatus: Record<string, string> = { PENDING: 'CONFIRMED', CONFIRMED: 'SHIPPED', SHIPPED: 'DELIVERED' };
+  readonly statuses = ['PENDING', 'CONFIRMED', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELED', 'PAYMENT_FAILED', 'NEEDS_REVIEW'];
   clients = signal<Client[]>([]);
   products = signal<Product[]>([]);
 
@@ -366,21 +387,46 @@ export class OrdersComponent {
 
   reloadAll() {
     this.loadOrders();
+    this.loadSummary();
     this.loadClients();
     this.loadProducts();
   }
 
+  // Orders are paged server-side, newest first; non-admins only ever get their own
   loadOrders() {
-    this.ordersApi.list().subscribe({
-      next: v => {
-        if (this.isAdmin()) {
-          this.items.set(v);
-        } else {
-          const uid = this.auth.user()?.id;
-          this.items.set(v.filter(o => o.clientId === uid));
-        }
+    this.fetchPage(null);
+  }
+
+  loadMore() {
+    this.fetchPage(this.nextCursor());
+  }
+
+  private fetchPage(cursor: string | null) {
+    this.ordersApi.page({
+      status: this.statusFilter || undefined,
+      clientId: this.isAdmin() ? undefined : this.auth.user()?.id,
+      cursor,
+      limit: 50
+    }).subscribe({
+      next: p => {
+        this.items.set(cursor ? [...this.items(), ...p.items] : p.items);
+        this.nextCursor.set(p.nextCursor);
       },
-      error: () => this.items.set([])
+      error: () => {
+        this.items.set([]);
+        this.nextCursor.set(null);
+      }
+    });
+  }
+
+  // Clients see their totals from the precomputed summary instead of counting their orders
+  loadSummary() {
+    const uid = this.auth.user()?.id;
+    if (this.isAdmin() || uid == null) return;
+
+    this.ordersApi.clientSummary(uid).subscribe({
+      next: s => this.summary.set(s),
+      error: () => this.summary.set(null)
     });
   }
 
@@ -455,6 +501,24 @@ export class OrdersComponent {
     return p ? p.name : `Product #${id}`;
   }
 
+  advanceAll() {
+    const from = this.statusFilter;
+    const to = this.nextStatus[from];
+    if (!to || !confirm(`Move all ${from} orders to ${to}?`)) return;
+
+    this.ordersApi.bulkUpdateStatus(from, to).subscribe({
+      next: r => {
+        const more = r.hasMore ? ' More remain, run it again.' : '';
+        alert(`${r.updated} orders moved to ${to}.${more}`);
+        this.loadOrders();
+      },
+      error: (err) => {
+        console.error('Failed to update order statuses:', err);
+        alert('Failed to update order statuses');
+      }
+    });
+  }
+
   updateStatus(order: Order, newStatus: string) {
     if (!order.id) return;
 
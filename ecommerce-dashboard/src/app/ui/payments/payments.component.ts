@@ -9,6 +9,7 @@ import { MatIconModule } from '@angular/material/icon';
 import { MatSelectModule } from '@angular/material/select';
 import { MatMenuModule } from '@angular/material/menu';
 import { MatSnackBar, MatSnackBarModule } from '@angular/material/snack-bar';
+import { map } from 'rxjs';
 
 import { PaymentsApi } from '../../api/payments.api';
 import { OrdersApi } from '../../api/orders.api';
@@ -308,15 +309,17 @@ export class PaymentsComponent {
     // 1. Load History
     this.api.list().subscribe({ next: v => this.items.set(v), error: () => this.items.set([]) });
 
-    // 2. Load Orders for mapping
-    this.ordersApi.list().subscribe(orders => {
+    // 2. Load Orders for mapping (clients only need their own)
+    const orders$ = this.isAdmin()
+      ? this.ordersApi.list()
+      : this.ordersApi.page({ clientId: this.auth.user()?.id, limit: 500 }).pipe(map(p => p.items));
+    orders$.subscribe(orders => {
       this.orders.set(orders);
 
       // 3. For Client: Filter pending orders for the checkout dropdown
       if (!this.isAdmin()) {
-        const uid = this.auth.user()?.id;
         // Allow PENDING and CONFIRMED orders to be paid
-        const pending = orders.filter(o => o.clientId === uid && (o.status === 'PENDING' || o.status === 'CONFIRMED'));
+        const pending = orders.filter(o => o.status === 'PENDING' || o.status === 'CONFIRMED');
         this.myPendingOrders.set(pending);
       }
     });
@@ -377,8 +380,10 @@ export class PaymentsComponent {
       ownerName: this.method === 'CARD' ? this.ownerName : undefined
     }).subscribe({
       next: () => {
-        this.snack.open('Payment processed successfully', 'OK', { duration: 3000 });
+        // The order is marked paid asynchronously from the payment event
+        this.snack.open('Payment recorded. The order will show as paid in a moment.', 'OK', { duration: 3000 });
         this.load();
+        setTimeout(() => this.load(), 1500);
         this.selectedOrderId = undefined;
         this.amount = 0;
       },
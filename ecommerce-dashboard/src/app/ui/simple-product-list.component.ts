@@ -169,7 +169,7 @@ export class ProductListComponent implements OnInit {
     // Method to load products from API
     loadProducts() {
         // Call the API Gateway
-        this.http.get<Product[]>('http://localhost:8085/api/products')
+        this.http.get<Product[]>('http://localhost:8085/api/products?unpaged=true')
             .subscribe({
                 next: (data) => {
                     this.products = data;
@@ -0,0 +1,63 @@
+#!/bin/bash
+# Shows that a slow payment-service cannot starve product lookups in order-service.
+#
+# payment-service is frozen (docker-compose pause), so every payment call hangs until
+# the Feign read timeout. While synchronous checkouts pile up on it, a second stream of
+# requests never needs payment-service: a checkout for more units than exist fails right
+# after the product lookup. Without bulkheads those requests wait for a request thread
+# held by a stuck payment; with them the payment calls are rejected fast and product
+# lookups stay close to their baseline latency. The default concurrency is above
+# Tomcat's 200 request threads on purpose.
+#
+# Usage: ./load_test_bulkheads.sh <productId> <clientId> [checkouts] [concurrency]
+
+PRODUCT_ID=${1:?productId required}
+CLIENT_ID=${2:?clientId required}
+CHECKOUTS=${3:-1000}
+CONCURRENCY=${4:-250}
+ORDER_URL=${ORDER_URL:-http://localhost:8082}
+LOOKUPS=200
+
+lookup_latencies() {
+    seq "$LOOKUPS" | xargs -P 10 -I{} curl -s -o /dev/null -w "%{time_total}\n" -X POST \
+        "$ORDER_URL/api/orders?productId=$PRODUCT_ID&quantity=1000000000&clientId=$CLIENT_ID" | sort -n
+}
+
+report() {
+    local label=$1 file=$2
+    local count p50 p95 p99
+    count=$(wc -l < "$file")
+    p50=$(sed -n "$((count * 50 / 100 + 1))p" "$file")
+    p95=$(sed -n "$((count * 95 / 100 + 1))p" "$file")
+    p99=$(sed -n "$((count * 99 / 100 + 1))p" "$file")
+    echo "   $label: p50=${p50}s p95=${p95}s p99=${p99}s ($count requests)"
+}
+
+BASELINE=$(mktemp)
+UNDER_LOAD=$(mktemp)
+trap 'docker-compose unpause payment-service >/dev/null 2>&1; rm -f "$BASELINE" "$UNDER_LOAD"' EXIT
+
+echo "📏 Measuring product lookups with every service healthy..."
+lookup_latencies > "$BASELINE"
+
+echo "🐢 Freezing payment-service and starting $CHECKOUTS checkouts ($CONCURRENCY at a time)..."
+docker-compose pause payment-service
+seq "$CHECKOUTS" | xargs -P "$CONCURRENCY" -I{} curl -s -o /dev/null -X POST \
+    "$ORDER_URL/api/orders?productId=$PRODUCT_ID&quantity=1&clientId=$CLIENT_ID" &
+CHECKOUT_PID=$!
+sleep 2
+
+echo "📏 Measuring product lookups while payments hang..."
+lookup_latencies > "$UNDER_LOAD"
+wait "$CHECKOUT_PID"
+
+echo -e "\n📊 Product lookup latency:"
+report "healthy        " "$BASELINE"
+report "payment frozen " "$UNDER_LOAD"
+
+echo -e "\n🛡️ Rejected payment calls (order-service metrics):"
+for reason in circuit bulkhead limit; do
+    value=$(curl -s "$ORDER_URL/actuator/metrics/feign.downstream.rejected?tag=client:payment-service&tag=reason:$reason" \
+        | grep -o '"value":[0-9.E]*' | head -1 | cut -d: -f2)
+    echo "   $reason: ${value:-0}"
+done
@@ -0,0 +1,42 @@
+package com.ecommerce.order.service.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deadline for the Feign calls the current thread makes. Work run through
+ * {@link #within} cannot make a call that outlives it: DeadlineClient cuts
+ * the connect and read timeouts of every call down to the time that is left.
+ * Nested deadlines keep the earlier one.
+ */
+public final class CallDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private CallDeadline() {
+    }
+
+    /** Runs work with a deadline given as a System.nanoTime() value. */
+    public static <T> T within(long deadlineNanos, Supplier<T> work) {
+        Long previous = DEADLINE_NANOS.get();
+        DEADLINE_NANOS.set(previous != null && previous - deadlineNanos < 0 ? previous : deadlineNanos);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE_NANOS.remove();
+            } else {
+                DEADLINE_NANOS.set(previous);
+            }
+        }
+    }
+
+    /** Milliseconds left for the current thread, Long.MAX_VALUE when it has no deadline. */
+    public static long remainingMillis() {
+        Long deadline = DEADLINE_NANOS.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+}
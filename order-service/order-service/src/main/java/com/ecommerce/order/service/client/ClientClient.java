@@ -4,9 +4,16 @@ import com.ecommerce.order.service.model.Client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @FeignClient(name = "client-service") 
 public interface ClientClient {
     @GetMapping("/api/clients/{id}")
     Client getClientById(@PathVariable("id") Long id);
+
+    // At most 200 ids per call; unknown ids are left out
+    @GetMapping("/api/clients/batch")
+    List<Client> getClientsByIds(@RequestParam("ids") List<Long> ids);
 }
@@ -0,0 +1,43 @@
+package com.ecommerce.order.service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the caller's {@link CallDeadline} to each request: connect and read
+ * timeouts are cut to the time left, and a call whose deadline already passed
+ * fails at once without going downstream. Without a deadline the configured
+ * timeouts apply unchanged.
+ */
+public class DeadlineClient implements Client {
+
+    private final Client delegate;
+
+    public DeadlineClient(Client delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        long remainingMs = CallDeadline.remainingMillis();
+        if (remainingMs == Long.MAX_VALUE) {
+            return delegate.execute(request, options);
+        }
+        if (remainingMs <= 0) {
+            throw new SocketTimeoutException("Deadline passed before calling " + request.url());
+        }
+        if (remainingMs >= options.connectTimeoutMillis() && remainingMs >= options.readTimeoutMillis()) {
+            return delegate.execute(request, options);
+        }
+        Request.Options bounded = new Request.Options(
+                Math.min(options.connectTimeoutMillis(), remainingMs), TimeUnit.MILLISECONDS,
+                Math.min(options.readTimeoutMillis(), remainingMs), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+        return delegate.execute(request, bounded);
+    }
+}
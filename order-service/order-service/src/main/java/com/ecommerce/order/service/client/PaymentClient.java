@@ -1,12 +1,23 @@
 package com.ecommerce.order.service.client;
 
 import com.ecommerce.order.service.dto.PaymentRequest;
+import com.ecommerce.order.service.dto.PaymentResult;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+
+import java.util.List;
 
 @FeignClient(name = "payment-service")
 public interface PaymentClient {
+    // The key makes a retried call return the first payment instead of charging again
     @PostMapping("/api/payments")
-    void processPayment(@RequestBody PaymentRequest request);
+    PaymentResult processPayment(@RequestHeader("Idempotency-Key") String idempotencyKey,
+                                 @RequestBody PaymentRequest request);
+
+    @GetMapping("/api/payments/by-order/{orderId}")
+    List<PaymentResult> getPaymentsByOrder(@PathVariable("orderId") Long orderId);
 }
@@ -1,18 +1,42 @@
 package com.ecommerce.order.service.client;
 
+import com.ecommerce.order.service.dto.HeldStock;
+import com.ecommerce.order.service.dto.StockLine;
 import com.ecommerce.order.service.model.Product;
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(name = "product-service", fallback = ProductClientFallback.class)
 public interface ProductClient {
 
     @GetMapping("/api/products/{id}")
     Product getProductById(@PathVariable("id") Long id);
 
+    @GetMapping("/api/products/batch")
+    List<Product> getProductsByIds(@RequestParam("ids") List<Long> ids);
+
+    // Streams the catalog as NDJSON; the caller must close the response
+    @GetMapping("/api/products/export")
+    Response exportProducts(@RequestParam("format") String format,
+                            @RequestParam(value = "updatedSince", required = false) String updatedSince);
+
     @PostMapping("/api/products/{id}/reduce-stock")
     void reduceStock(@PathVariable("id") Long id, @RequestParam("quantity") int quantity);
+
+    // Returns the held lines with the price each was held at
+    @PostMapping("/api/products/holds")
+    List<HeldStock> holdStock(@RequestParam("reference") String reference, @RequestBody List<StockLine> lines);
+
+    @PostMapping("/api/products/holds/{reference}/confirm")
+    void confirmHold(@PathVariable("reference") String reference);
+
+    @PostMapping("/api/products/holds/{reference}/release")
+    void releaseHold(@PathVariable("reference") String reference);
 }
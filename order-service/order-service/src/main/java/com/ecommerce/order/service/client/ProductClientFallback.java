@@ -1,19 +1,53 @@
 package com.ecommerce.order.service.client;
 
+import com.ecommerce.order.service.dto.HeldStock;
+import com.ecommerce.order.service.dto.StockLine;
 import com.ecommerce.order.service.model.Product;
+import feign.Response;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class ProductClientFallback implements ProductClient {
 
+    @Override
+    public Response exportProducts(String format, String updatedSince) {
+        System.err.println("⚠️ Feign Fallback triggered for product export");
+        return null;
+    }
+
     @Override
     public Product getProductById(Long id) {
         System.err.println("⚠️ Feign Fallback triggered for product ID " + id);
         return null;
     }
 
+    @Override
+    public List<Product> getProductsByIds(List<Long> ids) {
+        System.err.println("⚠️ Feign Fallback triggered for product IDs " + ids);
+        return null;
+    }
+
     @Override
     public void reduceStock(Long id, int quantity) {
         System.err.println("[ProductClientFallback] Falling back for reduceStock (Service Unavailable)");
     }
+
+    @Override
+    public List<HeldStock> holdStock(String reference, List<StockLine> lines) {
+        // Never pretend stock was held: the order must not proceed to payment
+        throw new RuntimeException("Product service is currently unavailable. Please try again later.");
+    }
+
+    @Override
+    public void confirmHold(String reference) {
+        // Never pretend a hold was confirmed: the caller keeps retrying until it is
+        throw new RuntimeException("Product service is currently unavailable, stock hold " + reference + " not confirmed");
+    }
+
+    @Override
+    public void releaseHold(String reference) {
+        System.err.println("[ProductClientFallback] Falling back for releaseHold " + reference + " (Service Unavailable)");
+    }
 }
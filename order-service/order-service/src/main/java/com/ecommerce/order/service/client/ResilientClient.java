@@ -0,0 +1,138 @@
+package com.ecommerce.order.service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guards every downstream service separately, so a slow one cannot take up
+ * the threads the others need. A call must pass, in order:
+ * - the circuit breaker, open while the service fails or is slow;
+ * - the bulkhead, a hard cap on concurrent calls;
+ * - the adaptive limit, which tracks how much concurrency the service handles right now.
+ * A call that does not get through is rejected at once with 503 and never
+ * reaches the network. Breakers and bulkheads are configured under
+ * resilience4j.* by service name in camel case (product-service -> productService).
+ */
+public class ResilientClient implements Client {
+
+    private record Guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead, AdaptiveConcurrencyLimit limit,
+                         Counter circuitRejections, Counter bulkheadRejections, Counter limitRejections) {}
+
+    private final Client delegate;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final Supplier<AdaptiveConcurrencyLimit> limits;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Guard> guards = new ConcurrentHashMap<>();
+
+    public ResilientClient(Client delegate, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                           Supplier<AdaptiveConcurrencyLimit> limits, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.limits = limits;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String service = request.requestTemplate().feignTarget().name();
+        Guard guard = guards.computeIfAbsent(service, this::createGuard);
+
+        if (!guard.circuitBreaker().tryAcquirePermission()) {
+            guard.circuitRejections().increment();
+            throw unavailable(service, "is failing, calls are paused");
+        }
+        if (!guard.bulkhead().tryAcquirePermission()) {
+            guard.circuitBreaker().releasePermission();
+            guard.bulkheadRejections().increment();
+            throw unavailable(service, "has too many calls in progress");
+        }
+        if (!guard.limit().tryAcquire()) {
+            guard.bulkhead().onComplete();
+            guard.circuitBreaker().releasePermission();
+            guard.limitRejections().increment();
+            throw unavailable(service, "is overloaded");
+        }
+
+        long start = System.nanoTime();
+        try {
+            Response response = delegate.execute(request, options);
+            long duration = System.nanoTime() - start;
+            if (response.status() == 429 || response.status() >= 500) {
+                guard.limit().onDropped();
+                guard.circuitBreaker().onError(duration, TimeUnit.NANOSECONDS,
+                        new IOException(service + " answered " + response.status()));
+            } else {
+                // 4xx answers are the caller's problem, not a sign of an unhealthy service
+                guard.limit().onSuccess(duration);
+                guard.circuitBreaker().onSuccess(duration, TimeUnit.NANOSECONDS);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            guard.limit().onDropped();
+            guard.circuitBreaker().onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            guard.bulkhead().onComplete();
+        }
+    }
+
+    private Guard createGuard(String service) {
+        String name = configName(service);
+        AdaptiveConcurrencyLimit limit = limits.get();
+        Gauge.builder("feign.adaptive.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("client", service)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("feign.adaptive.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("client", service)
+                .description("Calls in flight under the adaptive limit")
+                .register(meterRegistry);
+        return new Guard(circuitBreakers.circuitBreaker(name), bulkheads.bulkhead(name), limit,
+                rejections(service, "circuit"), rejections(service, "bulkhead"), rejections(service, "limit"));
+    }
+
+    private Counter rejections(String service, String reason) {
+        return Counter.builder("feign.downstream.rejected")
+                .tag("client", service)
+                .tag("reason", reason)
+                .description("Downstream calls rejected without reaching the network")
+                .register(meterRegistry);
+    }
+
+    private static ResponseStatusException unavailable(String service, String reason) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                service + " " + reason + ". Please try again later.");
+    }
+
+    // product-service -> productService, the naming used under resilience4j.*
+    static String configName(String service) {
+        StringBuilder name = new StringBuilder();
+        boolean upper = false;
+        for (char c : service.toCharArray()) {
+            if (c == '-') {
+                upper = true;
+            } else {
+                name.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.order.service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.Counter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses identical GET requests that are in flight at the same time: the
+ * first caller goes downstream, callers arriving before it finishes wait and
+ * get a copy of the same response. Nothing is cached once the call is done.
+ * Requests are identical when URL and headers match.
+ */
+public class SingleFlightClient implements Client {
+
+    private record BufferedResponse(int status, String reason, Map<String, Collection<String>> headers, byte[] body) {
+
+        static BufferedResponse of(Response response) throws IOException {
+            byte[] body = response.body() != null ? Util.toByteArray(response.body().asInputStream()) : null;
+            return new BufferedResponse(response.status(), response.reason(), response.headers(), body);
+        }
+
+        Response toResponse(Request request) {
+            return Response.builder()
+                    .status(status)
+                    .reason(reason)
+                    .headers(headers)
+                    .body(body)
+                    .request(request)
+                    .build();
+        }
+    }
+
+    private final Client delegate;
+    private final List<String> excludedPaths;
+    private final Counter leaders;
+    private final Counter followers;
+    private final ConcurrentHashMap<String, CompletableFuture<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightClient(Client delegate, List<String> excludedPaths, Counter leaders, Counter followers) {
+        this.delegate = delegate;
+        this.excludedPaths = excludedPaths;
+        this.leaders = leaders;
+        this.followers = followers;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET || isExcluded(request.url())) {
+            return delegate.execute(request, options);
+        }
+
+        String key = request.url() + " " + request.headers();
+        CompletableFuture<BufferedResponse> call = new CompletableFuture<>();
+        CompletableFuture<BufferedResponse> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            followers.increment();
+            return await(running, options).toResponse(request);
+        }
+
+        leaders.increment();
+        try {
+            BufferedResponse response;
+            try (Response downstream = delegate.execute(request, options)) {
+                response = BufferedResponse.of(downstream);
+            }
+            call.complete(response);
+            return response.toResponse(request);
+        } catch (IOException | RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    // Streaming endpoints are not buffered into memory
+    private boolean isExcluded(String url) {
+        return excludedPaths.stream().anyMatch(url::contains);
+    }
+
+    private static BufferedResponse await(CompletableFuture<BufferedResponse> running, Request.Options options)
+            throws IOException {
+        long timeoutMs = options.connectTimeoutMillis() + options.readTimeoutMillis();
+        try {
+            return running.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for an identical request in flight", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for an identical request in flight");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.order.service.config;
+
+import com.ecommerce.order.service.service.ClientOrderViewService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfill mode: start with --order.client-view.rebuild-on-start=true to
+ * compute the client order views from the existing orders, e.g. on the first
+ * deploy or after the views were lost. Order events applied during the rebuild
+ * can be counted twice, so use it while no orders are being written.
+ */
+@Component
+@ConditionalOnProperty(name = "order.client-view.rebuild-on-start", havingValue = "true")
+public class ClientOrderViewRebuildRunner implements ApplicationRunner {
+
+    private final ClientOrderViewService clientOrderViewService;
+
+    public ClientOrderViewRebuildRunner(ClientOrderViewService clientOrderViewService) {
+        this.clientOrderViewService = clientOrderViewService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        int clients = clientOrderViewService.rebuildAll();
+        System.out.println("🔄 Rebuilt order views for " + clients + " clients in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
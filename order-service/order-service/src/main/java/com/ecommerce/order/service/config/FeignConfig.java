@@ -0,0 +1,91 @@
+package com.ecommerce.order.service.config;
+
+import com.ecommerce.order.service.client.AdaptiveConcurrencyLimit;
+import com.ecommerce.order.service.client.DeadlineClient;
+import com.ecommerce.order.service.client.ResilientClient;
+import com.ecommerce.order.service.client.SingleFlightClient;
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Feign runs on the pooled Apache HttpClient 5 transport (feign-hc5, pool
+ * sized under spring.cloud.openfeign.httpclient). On top of it:
+ * - every downstream service gets its own circuit breaker, bulkhead and
+ *   adaptive concurrency limit (see ResilientClient);
+ * - identical GETs in flight at the same time are collapsed into one
+ *   downstream call, before any of those limits is taken;
+ * - timeouts are cut to the caller's deadline, when it set one (see CallDeadline).
+ *
+ * Metrics:
+ * - httpcomponents.httpclient.pool.* {httpclient=feign}: leased, available and pending connections
+ * - feign.singleflight.requests {role=leader|follower}: followers were served by a leader's call
+ * - feign.singleflight.collapse.ratio: followers / all collapsible requests
+ * - feign.adaptive.limit / feign.adaptive.inflight {client}: current limit and its use
+ * - feign.downstream.rejected {client, reason=circuit|bulkhead|limit}: calls failed fast
+ * - resilience4j.circuitbreaker.* and resilience4j.bulkhead.* per service
+ */
+@Configuration
+public class FeignConfig {
+
+    @Bean
+    public Capability downstreamCapability(MeterRegistry registry,
+                                           CircuitBreakerRegistry circuitBreakers,
+                                           BulkheadRegistry bulkheads,
+                                           @Value("${feign.single-flight.enabled:true}") boolean singleFlightEnabled,
+                                           @Value("${feign.single-flight.exclude-paths:/api/products/export}") List<String> excludedPaths,
+                                           @Value("${feign.adaptive-limit.initial-limit:20}") int initialLimit,
+                                           @Value("${feign.adaptive-limit.min-limit:2}") int minLimit,
+                                           @Value("${feign.adaptive-limit.max-limit:200}") int maxLimit,
+                                           @Value("${feign.adaptive-limit.backoff-ratio:0.9}") double backoffRatio,
+                                           @Value("${feign.adaptive-limit.latency-threshold-ms:1000}") long latencyThresholdMs) {
+        Counter leaders = Counter.builder("feign.singleflight.requests").tag("role", "leader")
+                .description("GET requests sent downstream").register(registry);
+        Counter followers = Counter.builder("feign.singleflight.requests").tag("role", "follower")
+                .description("GET requests answered by an identical request in flight").register(registry);
+        Gauge.builder("feign.singleflight.collapse.ratio", () -> {
+                    double total = leaders.count() + followers.count();
+                    return total == 0 ? 0 : followers.count() / total;
+                })
+                .description("Share of GET requests that did not go downstream")
+                .register(registry);
+
+        Supplier<AdaptiveConcurrencyLimit> limits = () ->
+                new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMs);
+
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                // Collapsed followers never reach the guards, so they do not use up a slot
+                Client guarded = new ResilientClient(client, circuitBreakers, bulkheads, limits, registry);
+                // Outermost, so a follower waiting on a collapsed call is bounded too
+                return new DeadlineClient(singleFlightEnabled
+                        ? new SingleFlightClient(guarded, excludedPaths, leaders, followers) : guarded);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
+    }
+}
@@ -1,12 +1,20 @@
 package com.ecommerce.order.service.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,6 +24,31 @@ public class RabbitMQConfig {
     public static final String EXCHANGE_NAME = "notificationExchange";
     public static final String QUEUE_NAME = "notificationQueue";
 
+    // Asynchronous checkout saga steps
+    public static final String SAGA_EXCHANGE = "orderSagaExchange";
+    public static final String SAGA_QUEUE = "orderSagaQueue";
+    // Retried steps wait here until their TTL runs out, then dead-letter back onto the saga queue
+    public static final String SAGA_RETRY_QUEUE = "orderSagaQueue.retry";
+
+    // Client profile changes from client-service, fanned out to every instance
+    public static final String CLIENT_EVENTS_EXCHANGE = "clientEventsExchange";
+
+    // Order lifecycle events; the client order view is one of the consumers and dead-letters what keeps failing
+    public static final String ORDER_EVENTS_EXCHANGE = "orderEventsExchange";
+    public static final String CLIENT_VIEW_QUEUE = "orderClientViewEventsQueue";
+    public static final String CLIENT_VIEW_DLX = "orderClientViewDlx";
+    public static final String CLIENT_VIEW_DLQ = "orderClientViewEventsQueue.dlq";
+
+    // Product changes from product-service, fanned out to every instance
+    public static final String PRODUCT_EVENTS_EXCHANGE = "productEventsExchange";
+
+    // Payment outcomes from payment-service; events that keep failing end up on the dead-letter queue
+    public static final String PAYMENT_EVENTS_EXCHANGE = "paymentEventsExchange";
+    public static final String PAYMENT_RESULT_ROUTING_KEY = "paymentResult";
+    public static final String PAYMENT_RESULTS_QUEUE = "orderPaymentResultsQueue";
+    public static final String PAYMENT_RESULTS_DLX = "orderPaymentResultsDlx";
+    public static final String PAYMENT_RESULTS_DLQ = "orderPaymentResultsQueue.dlq";
+
     @Bean
     public Queue notificationQueue() {
         return new Queue(QUEUE_NAME, true);
@@ -32,6 +65,183 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(notificationQueue).to(notificationExchange).with(QUEUE_NAME);
     }
 
+    @Bean
+    public Queue orderSagaQueue() {
+        return new Queue(SAGA_QUEUE, true);
+    }
+
+    @Bean
+    public DirectExchange orderSagaExchange() {
+        return new DirectExchange(SAGA_EXCHANGE);
+    }
+
+    @Bean
+    public Binding sagaBinding(Queue orderSagaQueue, DirectExchange orderSagaExchange) {
+        return BindingBuilder.bind(orderSagaQueue).to(orderSagaExchange).with(SAGA_QUEUE);
+    }
+
+    // The TTL is a queue argument: changing order.saga.retry-delay-ms means deleting this queue first
+    @Bean
+    public Queue orderSagaRetryQueue(@Value("${order.saga.retry-delay-ms:2000}") int retryDelayMs) {
+        return QueueBuilder.durable(SAGA_RETRY_QUEUE)
+                .ttl(retryDelayMs)
+                .deadLetterExchange(SAGA_EXCHANGE)
+                .deadLetterRoutingKey(SAGA_QUEUE)
+                .build();
+    }
+
+    @Bean
+    public Binding sagaRetryBinding(Queue orderSagaRetryQueue, DirectExchange orderSagaExchange) {
+        return BindingBuilder.bind(orderSagaRetryQueue).to(orderSagaExchange).with(SAGA_RETRY_QUEUE);
+    }
+
+    @Bean
+    public FanoutExchange clientEventsExchange() {
+        return new FanoutExchange(CLIENT_EVENTS_EXCHANGE);
+    }
+
+    // One auto-deleted queue per instance, since each instance has its own client cache
+    @Bean
+    public AnonymousQueue clientEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding clientEventsBinding(AnonymousQueue clientEventsQueue, FanoutExchange clientEventsExchange) {
+        return BindingBuilder.bind(clientEventsQueue).to(clientEventsExchange);
+    }
+
+    @Bean
+    public FanoutExchange productEventsExchange() {
+        return new FanoutExchange(PRODUCT_EVENTS_EXCHANGE);
+    }
+
+    // One auto-deleted queue per instance, since each instance has its own product projection
+    @Bean
+    public AnonymousQueue productEventsQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding productEventsBinding(AnonymousQueue productEventsQueue, FanoutExchange productEventsExchange) {
+        return BindingBuilder.bind(productEventsQueue).to(productEventsExchange);
+    }
+
+    @Bean
+    public FanoutExchange orderEventsExchange() {
+        return new FanoutExchange(ORDER_EVENTS_EXCHANGE);
+    }
+
+    // Shared by all instances: each event updates the view once
+    @Bean
+    public Queue orderClientViewQueue() {
+        return QueueBuilder.durable(CLIENT_VIEW_QUEUE)
+                .deadLetterExchange(CLIENT_VIEW_DLX)
+                .deadLetterRoutingKey(CLIENT_VIEW_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Binding clientViewBinding(Queue orderClientViewQueue, FanoutExchange orderEventsExchange) {
+        return BindingBuilder.bind(orderClientViewQueue).to(orderEventsExchange);
+    }
+
+    @Bean
+    public DirectExchange orderClientViewDlx() {
+        return new DirectExchange(CLIENT_VIEW_DLX);
+    }
+
+    @Bean
+    public Queue orderClientViewDlq() {
+        return new Queue(CLIENT_VIEW_DLQ, true);
+    }
+
+    @Bean
+    public Binding clientViewDlqBinding(Queue orderClientViewDlq, DirectExchange orderClientViewDlx) {
+        return BindingBuilder.bind(orderClientViewDlq).to(orderClientViewDlx).with(CLIENT_VIEW_DLQ);
+    }
+
+    @Bean
+    public DirectExchange paymentEventsExchange() {
+        return new DirectExchange(PAYMENT_EVENTS_EXCHANGE);
+    }
+
+    // Shared by all instances: each payment result is applied once
+    @Bean
+    public Queue orderPaymentResultsQueue() {
+        return QueueBuilder.durable(PAYMENT_RESULTS_QUEUE)
+                .deadLetterExchange(PAYMENT_RESULTS_DLX)
+                .deadLetterRoutingKey(PAYMENT_RESULTS_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Binding paymentResultsBinding(Queue orderPaymentResultsQueue, DirectExchange paymentEventsExchange) {
+        return BindingBuilder.bind(orderPaymentResultsQueue).to(paymentEventsExchange).with(PAYMENT_RESULT_ROUTING_KEY);
+    }
+
+    @Bean
+    public DirectExchange orderPaymentResultsDlx() {
+        return new DirectExchange(PAYMENT_RESULTS_DLX);
+    }
+
+    @Bean
+    public Queue orderPaymentResultsDlq() {
+        return new Queue(PAYMENT_RESULTS_DLQ, true);
+    }
+
+    @Bean
+    public Binding paymentResultsDlqBinding(Queue orderPaymentResultsDlq, DirectExchange orderPaymentResultsDlx) {
+        return BindingBuilder.bind(orderPaymentResultsDlq).to(orderPaymentResultsDlx).with(PAYMENT_RESULTS_DLQ);
+    }
+
+    // Retries a failing payment event in place with backoff, then rejects it to the dead-letter queue
+    @Bean
+    public SimpleRabbitListenerContainerFactory paymentEventsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${order.payment-events.max-attempts:5}") int maxAttempts,
+            @Value("${order.payment-events.initial-interval-ms:1000}") long initialIntervalMs,
+            @Value("${order.payment-events.multiplier:2.0}") double multiplier,
+            @Value("${order.payment-events.max-interval-ms:10000}") long maxIntervalMs) {
+        return retryingContainerFactory(configurer, connectionFactory, maxAttempts, initialIntervalMs, multiplier, maxIntervalMs);
+    }
+
+    // Same for order events feeding the client view, e.g. while the database is briefly unavailable
+    @Bean
+    public SimpleRabbitListenerContainerFactory clientViewContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${order.client-view.max-attempts:5}") int maxAttempts,
+            @Value("${order.client-view.initial-interval-ms:1000}") long initialIntervalMs,
+            @Value("${order.client-view.multiplier:2.0}") double multiplier,
+            @Value("${order.client-view.max-interval-ms:10000}") long maxIntervalMs) {
+        return retryingContainerFactory(configurer, connectionFactory, maxAttempts, initialIntervalMs, multiplier, maxIntervalMs);
+    }
+
+    // A failing saga step is handled in code (retried or compensated); never loop a poison message
+    @Bean
+    public SimpleRabbitListenerContainerFactory sagaContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                     ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    private static SimpleRabbitListenerContainerFactory retryingContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            int maxAttempts, long initialIntervalMs, double multiplier, long maxIntervalMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(initialIntervalMs, multiplier, maxIntervalMs)
+                .recoverer(new RejectAndDontRequeueRecoverer())
+                .build());
+        return factory;
+    }
+
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
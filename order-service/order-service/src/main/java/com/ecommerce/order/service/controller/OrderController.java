@@ -1,20 +1,71 @@
 package com.ecommerce.order.service.controller;
 
+import com.ecommerce.order.service.dto.BulkStatusRequest;
+import com.ecommerce.order.service.dto.BulkStatusResult;
+import com.ecommerce.order.service.dto.CartOrderRequest;
+import com.ecommerce.order.service.dto.CheckoutAccepted;
+import com.ecommerce.order.service.dto.OrderQuery;
+import com.ecommerce.order.service.model.ClientOrderView;
 import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.service.ClientOrderViewService;
+import com.ecommerce.order.service.service.IdempotencyService;
+import com.ecommerce.order.service.service.OrderSagaService;
 import com.ecommerce.order.service.service.OrderService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import lombok.RequiredArgsConstructor;
-import java.util.List;
+import java.net.URI;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderSagaService orderSagaService;
+    private final IdempotencyService idempotencyService;
+    private final ClientOrderViewService clientOrderViewService;
 
+    /**
+     * GET /api/orders?status=&clientId=&from=&to=&cursor=&limit= - Newest orders first as {items, nextCursor}
+     * - from/to are ISO date-times on createdAt (from inclusive, to exclusive)
+     * - page=N may replace cursor for shallow jumps
+     * GET /api/orders?unpaged=true - Legacy list of all orders
+     */
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<?> getAllOrders(@RequestParam(defaultValue = "false") boolean unpaged,
+                                          @RequestParam(required = false) String status,
+                                          @RequestParam(required = false) Long clientId,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer page,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        if (unpaged) {
+            return ResponseEntity.ok(orderService.getAllOrders());
+        }
+        return ResponseEntity.ok(orderService.getOrderPage(OrderQuery.of(status, clientId, from, to, limit, cursor, page)));
+    }
+
+    /**
+     * GET /api/orders/count?status=&clientId=&from=&to= - Number of matching orders
+     */
+    @GetMapping("/count")
+    public long countOrders(@RequestParam(required = false) String status,
+                            @RequestParam(required = false) Long clientId,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return orderService.countOrders(OrderQuery.of(status, clientId, from, to, 1, null, null));
+    }
+
+    /**
+     * GET /api/orders/clients/{clientId}/summary - The client's order counts per status,
+     * lifetime spend and most recent orders, read from a precomputed view
+     */
+    @GetMapping("/clients/{clientId}/summary")
+    public ClientOrderView getClientSummary(@PathVariable Long clientId) {
+        return clientOrderViewService.get(clientId);
     }
 
     @GetMapping("/{id}")
@@ -22,9 +73,39 @@ public class OrderController {
         return orderService.getOrderById(id);
     }
 
+    /**
+     * POST /api/orders - Synchronous checkout, answers with the paid order
+     * POST /api/orders?async=true - Answers 202 at once; poll the Location URL until
+     * the status leaves PENDING / STOCK_RESERVED
+     * With an Idempotency-Key header, a retried request gets the original response back.
+     */
     @PostMapping
-    public Order createOrder(@RequestParam Long productId, @RequestParam Integer quantity, @RequestParam Long clientId) {
-        return orderService.createOrder(productId, quantity, clientId);
+    public ResponseEntity<?> createOrder(@RequestParam Long productId, @RequestParam Integer quantity,
+                                         @RequestParam Long clientId,
+                                         @RequestParam(defaultValue = "false") boolean async,
+                                         @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        String fingerprint = productId + "|" + quantity + "|" + clientId + "|" + async;
+        return idempotencyService.execute("POST /api/orders", idempotencyKey, fingerprint, () -> {
+            if (!async) {
+                return ResponseEntity.ok(orderService.createOrder(productId, quantity, clientId));
+            }
+            Order order = orderSagaService.startCheckout(productId, quantity, clientId);
+            String statusUrl = "/api/orders/" + order.getId();
+            return ResponseEntity.accepted()
+                    .location(URI.create(statusUrl))
+                    .body(new CheckoutAccepted(order.getId(), order.getStatus(), statusUrl));
+        });
+    }
+
+    /**
+     * POST /api/orders/cart - Checks out several products as one order
+     * Body: {"clientId": 1, "lines": [{"productId": 1, "quantity": 2}, ...]}
+     */
+    @PostMapping("/cart")
+    public ResponseEntity<?> createCartOrder(@RequestBody CartOrderRequest request,
+                                             @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("POST /api/orders/cart", idempotencyKey, String.valueOf(request),
+                () -> ResponseEntity.ok(orderService.createCartOrder(request.clientId(), request.lines())));
     }
 
     @PatchMapping("/{id}/status")
@@ -32,6 +113,16 @@ public class OrderController {
         return orderService.updateOrderStatus(id, status);
     }
 
+    /**
+     * PATCH /api/orders/status - Moves many orders at once
+     * Body: {"from": "CONFIRMED", "to": "SHIPPED", "ids": [..], "createdFrom": "2025-01-01T00:00:00", "createdTo": ...}
+     * ids and the createdAt range are optional filters; repeat while hasMore is true.
+     */
+    @PatchMapping("/status")
+    public BulkStatusResult bulkUpdateStatus(@RequestBody BulkStatusRequest request) {
+        return orderService.bulkUpdateStatus(request);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
@@ -0,0 +1,17 @@
+package com.ecommerce.order.service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves every order in status "from" that matches the optional filters to
+ * status "to". Without ids, all orders in "from" (within the createdAt range)
+ * are candidates.
+ */
+public record BulkStatusRequest(
+    String from,
+    String to,
+    List<Long> ids,
+    LocalDateTime createdFrom,  // inclusive
+    LocalDateTime createdTo     // exclusive
+) {}
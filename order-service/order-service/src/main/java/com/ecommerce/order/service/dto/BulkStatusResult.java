@@ -0,0 +1,14 @@
+package com.ecommerce.order.service.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status change. hasMore is true when the per-request row
+ * limit was reached; sending the same request again moves the next batch.
+ */
+public record BulkStatusResult(
+    int updated,
+    List<Long> orderIds,
+    int notificationsQueued,
+    boolean hasMore
+) {}
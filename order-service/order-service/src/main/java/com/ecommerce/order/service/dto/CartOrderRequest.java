@@ -0,0 +1,8 @@
+package com.ecommerce.order.service.dto;
+
+import java.util.List;
+
+public record CartOrderRequest(
+    Long clientId,
+    List<StockLine> lines
+) {}
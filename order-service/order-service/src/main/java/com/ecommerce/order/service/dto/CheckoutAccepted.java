@@ -0,0 +1,7 @@
+package com.ecommerce.order.service.dto;
+
+public record CheckoutAccepted(
+    Long orderId,
+    String status,
+    String statusUrl
+) {}
@@ -0,0 +1,9 @@
+package com.ecommerce.order.service.dto;
+
+/**
+ * Sent by client-service when a profile is updated or deleted.
+ */
+public record ClientEvent(
+    String type,
+    Long clientId
+) {}
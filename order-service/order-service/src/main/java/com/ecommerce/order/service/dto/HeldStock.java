@@ -0,0 +1,12 @@
+package com.ecommerce.order.service.dto;
+
+/**
+ * The part of a product-service stock hold that order-service needs.
+ * unitPrice is the price when the stock was held, and what the order is
+ * charged; it is null from a product-service that does not record it.
+ */
+public record HeldStock(
+    Long productId,
+    int quantity,
+    Double unitPrice
+) {}
@@ -0,0 +1,31 @@
+package com.ecommerce.order.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published through the outbox whenever an order is created, changes status
+ * or is deleted. previousStatus is null for CREATED; for DELETED, status is
+ * the status the order had when it was removed. occurredAt is stamped when
+ * the event is queued and tells consumers which of two events is newer.
+ */
+public record OrderEvent(
+    String type,
+    Long orderId,
+    Long clientId,
+    Long productId,
+    Integer quantity,
+    Double totalPrice,
+    String previousStatus,
+    String status,
+    LocalDateTime createdAt,
+    LocalDateTime occurredAt
+) {
+
+    public static final String CREATED = "CREATED";
+    public static final String STATUS_CHANGED = "STATUS_CHANGED";
+    public static final String DELETED = "DELETED";
+
+    public OrderSummary toSummary() {
+        return new OrderSummary(orderId, clientId, productId, quantity, totalPrice, status, createdAt, occurredAt);
+    }
+}
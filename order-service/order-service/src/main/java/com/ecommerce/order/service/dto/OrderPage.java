@@ -0,0 +1,11 @@
+package com.ecommerce.order.service.dto;
+
+import java.util.List;
+
+/**
+ * One page of the order listing. nextCursor is null on the last page.
+ */
+public record OrderPage(
+    List<OrderSummary> items,
+    String nextCursor
+) {}
@@ -0,0 +1,70 @@
+package com.ecommerce.order.service.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Parsed parameters of an order listing. Orders come newest first (id
+ * descending). The cursor is an opaque token carrying the id of the last row
+ * of the previous page, so each page is an index range scan with no OFFSET;
+ * page numbers are still accepted for small jumps but get slower the deeper they go.
+ */
+public record OrderQuery(
+    String status,
+    Long clientId,
+    LocalDateTime from,  // inclusive
+    LocalDateTime to,    // exclusive
+    int limit,
+    Long beforeId,       // id of the last row already returned, null on the first page
+    int page
+) {
+
+    public static final int MAX_LIMIT = 500;
+    public static final int MAX_PAGE = 1000;
+
+    public static OrderQuery of(String status, Long clientId, LocalDateTime from, LocalDateTime to,
+                                int limit, String cursor, Integer page) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw badRequest("limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw badRequest("from must be before to");
+        }
+        if (page != null && (page < 0 || page > MAX_PAGE)) {
+            throw badRequest("page must be between 0 and " + MAX_PAGE + "; use the cursor to go further");
+        }
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+        if (hasCursor && page != null) {
+            throw badRequest("Use either cursor or page, not both");
+        }
+        String statusFilter = status == null || status.isBlank() ? null : status.toUpperCase();
+        Long beforeId = hasCursor ? decode(cursor) : null;
+        return new OrderQuery(statusFilter, clientId, from, to, limit, beforeId, page != null ? page : 0);
+    }
+
+    /** Cursor pointing after the given row. */
+    public static String cursorAfter(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith("id|")) {
+                throw badRequest("Malformed cursor");
+            }
+            return Long.parseLong(raw.substring(3));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException
+            throw badRequest("Malformed cursor");
+        }
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
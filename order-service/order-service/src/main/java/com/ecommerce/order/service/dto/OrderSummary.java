@@ -0,0 +1,19 @@
+package com.ecommerce.order.service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of an order listing, read straight from the orders table.
+ * Cart lines are not included; fetch the order by id for those.
+ * updatedAt is when the order last changed.
+ */
+public record OrderSummary(
+    Long id,
+    Long clientId,
+    Long productId,
+    Integer quantity,
+    Double totalPrice,
+    String status,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {}
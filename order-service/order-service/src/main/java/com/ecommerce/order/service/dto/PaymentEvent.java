@@ -0,0 +1,19 @@
+package com.ecommerce.order.service.dto;
+
+import java.time.Instant;
+
+/**
+ * Payment outcome published by payment-service once the payment is stored.
+ */
+public record PaymentEvent(
+    Long paymentId,
+    Long orderId,
+    String status,
+    Double amount,
+    String method,
+    Instant createdAt
+) {
+    public boolean isPaid() {
+        return "PAID".equals(status);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.order.service.dto;
+
+/**
+ * The part of payment-service's payment response that order-service needs.
+ */
+public record PaymentResult(
+    Long id,
+    Long orderId,
+    String status
+) {
+    public boolean isPaid() {
+        return "PAID".equals(status);
+    }
+}
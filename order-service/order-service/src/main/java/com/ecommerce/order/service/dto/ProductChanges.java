@@ -0,0 +1,10 @@
+package com.ecommerce.order.service.dto;
+
+import java.util.List;
+
+/**
+ * Batch of product changes published by product-service.
+ */
+public record ProductChanges(
+    List<ProductEvent> events
+) {}
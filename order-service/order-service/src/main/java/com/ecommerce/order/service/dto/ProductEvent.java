@@ -0,0 +1,21 @@
+package com.ecommerce.order.service.dto;
+
+import java.time.Instant;
+
+/**
+ * Sent by product-service with the current state of a changed product.
+ * For DELETED only productId and updatedAt are set.
+ */
+public record ProductEvent(
+    String type,
+    Long productId,
+    String name,
+    Double price,
+    Integer quantity,
+    Boolean available,
+    Instant updatedAt
+) {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.order.service.dto;
+
+/**
+ * One step of the asynchronous checkout saga, sent over RabbitMQ.
+ * RESERVE prices the order and holds stock, PAY charges it and CONFIRM turns
+ * the hold into a sale. CONFIRM_HOLD only confirms the hold; it backs up the
+ * synchronous checkout, which notifies on its own. attempt counts
+ * redeliveries after transient failures.
+ */
+public record SagaCommand(
+    Long orderId,
+    Step step,
+    int attempt
+) {
+    public enum Step { RESERVE, PAY, CONFIRM, CONFIRM_HOLD }
+
+    public SagaCommand next(Step nextStep) {
+        return new SagaCommand(orderId, nextStep, 1);
+    }
+
+    public SagaCommand retry() {
+        return new SagaCommand(orderId, step, attempt + 1);
+    }
+}
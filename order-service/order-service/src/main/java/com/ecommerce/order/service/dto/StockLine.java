@@ -0,0 +1,6 @@
+package com.ecommerce.order.service.dto;
+
+public record StockLine(
+    Long productId,
+    int quantity
+) {}
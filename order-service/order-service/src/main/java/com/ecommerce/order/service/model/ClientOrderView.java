@@ -0,0 +1,52 @@
+package com.ecommerce.order.service.model;
+
+import com.ecommerce.order.service.dto.OrderSummary;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row per client summarizing their order history, kept up to date from
+ * order events by ClientOrderViewService. Reading it is a primary key lookup,
+ * however many orders the client has.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "client_order_views")
+public class ClientOrderView {
+
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // Total of the orders that were paid and not canceled since
+    @Column(name = "lifetime_spend", nullable = false)
+    private double lifetimeSpend;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "status_counts", nullable = false)
+    @Builder.Default
+    private Map<String, Long> statusCounts = new HashMap<>();
+
+    // Newest first, at most order.client-view.recent-size entries
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "recent_orders", nullable = false)
+    @Builder.Default
+    private List<OrderSummary> recentOrders = new ArrayList<>();
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
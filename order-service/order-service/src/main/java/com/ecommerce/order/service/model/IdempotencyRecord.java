@@ -0,0 +1,37 @@
+package com.ecommerce.order.service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * The stored outcome of a request sent with an Idempotency-Key. status is 0
+ * while the first execution is still running.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+
+    // Scope and client key, e.g. "POST /api/orders:3f2a..."
+    @Id
+    private String id;
+
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    private String location;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
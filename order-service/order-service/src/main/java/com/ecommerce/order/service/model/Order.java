@@ -3,37 +3,45 @@ package com.ecommerce.order.service.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import org.hibernate.annotations.BatchSize;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "orders")
+// Listing indexes: each filter is followed by id so a page is one range scan, newest first
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_client_id", columnList = "client_id, id"),
+        @Index(name = "idx_orders_status", columnList = "status, id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class Order {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // Many orders can belong to one user
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
-
-    // Many orders can reference one product
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "product_id", nullable = false)
-    private Product product;
-
-    // Legacy fields for backward compatibility
+    // Plain ids: clients and products live in their own services
     private Long clientId;
     private Long productId;
 
+    // Total units; for cart orders the sum over all lines
     @Column(nullable = false)
     private Integer quantity;
 
+    // Cart orders only; single-product orders keep using productId and quantity.
+    // BatchSize loads the lines of a whole order listing in a few queries.
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    @BatchSize(size = 100)
+    @Builder.Default
+    private List<OrderLine> lines = new ArrayList<>();
+
     @Column(nullable = false)
     private Double totalPrice;
 
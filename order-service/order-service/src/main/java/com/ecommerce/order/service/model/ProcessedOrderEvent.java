@@ -0,0 +1,26 @@
+package com.ecommerce.order.service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Message id of an order event already applied to the client order view, so
+ * a redelivered event is recognised and skipped.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "processed_order_events", indexes = @Index(name = "idx_processed_order_events_processed_at", columnList = "processed_at"))
+public class ProcessedOrderEvent {
+
+    @Id
+    @Column(name = "event_id")
+    private String eventId;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.order.service.repository;
+
+import com.ecommerce.order.service.model.ClientOrderView;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ClientOrderViewRepository extends JpaRepository<ClientOrderView, Long> {
+
+    // Creates the empty row first, so concurrent first events for a client lock the same row
+    @Modifying
+    @Query(value = "INSERT INTO client_order_views (client_id, order_count, lifetime_spend, status_counts, recent_orders) " +
+                   "VALUES (:clientId, 0, 0, '{}'::jsonb, '[]'::jsonb) ON CONFLICT (client_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("clientId") Long clientId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ClientOrderView v WHERE v.clientId = :clientId")
+    Optional<ClientOrderView> lockById(@Param("clientId") Long clientId);
+
+    /**
+     * Recomputes every view from the orders table in one statement.
+     * Events applied while it runs may be counted twice, so run it without order traffic.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO client_order_views (client_id, order_count, lifetime_spend, status_counts, recent_orders, updated_at) " +
+                   "SELECT c.client_id, c.order_count, c.lifetime_spend, c.status_counts, COALESCE(r.recent, '[]'::jsonb), now() " +
+                   "FROM (SELECT client_id, sum(n) AS order_count, sum(spend) AS lifetime_spend, " +
+                   "             jsonb_object_agg(status, n) AS status_counts " +
+                   "      FROM (SELECT client_id, status, count(*) AS n, " +
+                   "                   COALESCE(sum(total_price) FILTER (WHERE status IN ('PAID', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'NEEDS_REVIEW')), 0) AS spend " +
+                   "            FROM orders WHERE client_id IS NOT NULL GROUP BY client_id, status) g " +
+                   "      GROUP BY client_id) c " +
+                   "CROSS JOIN LATERAL (SELECT jsonb_agg(jsonb_build_object('id', o.id, 'clientId', o.client_id, " +
+                   "        'productId', o.product_id, 'quantity', o.quantity, 'totalPrice', o.total_price, " +
+                   "        'status', o.status, 'createdAt', o.created_at, 'updatedAt', o.updated_at) ORDER BY o.id DESC) AS recent " +
+                   "      FROM (SELECT * FROM orders WHERE client_id = c.client_id ORDER BY id DESC LIMIT :recentSize) o) r " +
+                   "ON CONFLICT (client_id) DO UPDATE SET order_count = EXCLUDED.order_count, " +
+                   "lifetime_spend = EXCLUDED.lifetime_spend, status_counts = EXCLUDED.status_counts, " +
+                   "recent_orders = EXCLUDED.recent_orders, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int rebuildAll(@Param("recentSize") int recentSize);
+}
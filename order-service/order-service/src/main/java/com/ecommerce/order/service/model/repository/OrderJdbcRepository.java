@@ -0,0 +1,85 @@
+package com.ecommerce.order.service.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC access for set-based order updates that JPA would run row by row.
+ * Callers are expected to run inside a transaction.
+ */
+@Repository
+public class OrderJdbcRepository {
+
+    /** An order whose status was just changed. */
+    public record TransitionedOrder(Long id, Long clientId, Long productId, Integer quantity, Double totalPrice,
+                                    LocalDateTime createdAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Moves up to limit orders from one status to another in a single
+     * statement and returns the orders it changed, lowest id first.
+     * The outer status check is re-evaluated on rows another transaction
+     * changed in the meantime, so an order is never moved from a status it
+     * no longer has.
+     *
+     * @param ids         only these orders, or null for any
+     * @param createdFrom inclusive, or null
+     * @param createdTo   exclusive, or null
+     */
+    public List<TransitionedOrder> transitionStatus(String fromStatus, String toStatus, List<Long> ids,
+                                                    LocalDateTime createdFrom, LocalDateTime createdTo, int limit) {
+        StringBuilder select = new StringBuilder("SELECT id FROM orders WHERE status = ?");
+        if (ids != null) {
+            select.append(" AND id = ANY(?)");
+        }
+        if (createdFrom != null) {
+            select.append(" AND created_at >= ?");
+        }
+        if (createdTo != null) {
+            select.append(" AND created_at < ?");
+        }
+        select.append(" ORDER BY id LIMIT ?");
+        String sql = "UPDATE orders SET status = ?, updated_at = ? WHERE status = ? AND id IN (" + select + ")"
+                + " RETURNING id, client_id, product_id, quantity, total_price, created_at";
+
+        List<TransitionedOrder> changed = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setString(i++, toStatus);
+            ps.setTimestamp(i++, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setString(i++, fromStatus);
+            ps.setString(i++, fromStatus);
+            if (ids != null) {
+                Array array = con.createArrayOf("bigint", ids.toArray());
+                ps.setArray(i++, array);
+            }
+            if (createdFrom != null) {
+                ps.setTimestamp(i++, Timestamp.valueOf(createdFrom));
+            }
+            if (createdTo != null) {
+                ps.setTimestamp(i++, Timestamp.valueOf(createdTo));
+            }
+            ps.setInt(i, limit);
+            return ps;
+        }, (rs, rowNum) -> {
+            Timestamp createdAt = rs.getTimestamp("created_at");
+            return new TransitionedOrder(rs.getLong("id"), rs.getObject("client_id", Long.class),
+                    rs.getObject("product_id", Long.class), rs.getInt("quantity"), rs.getDouble("total_price"),
+                    createdAt != null ? createdAt.toLocalDateTime() : null);
+        });
+        // RETURNING has no ORDER BY
+        changed.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return changed;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.order.service.repository;
+
+import com.ecommerce.order.service.dto.OrderQuery;
+import com.ecommerce.order.service.dto.OrderSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order listings as flat projections. Each query reads only the orders table,
+ * so no association is ever loaded, and every filter combination has an index
+ * ending in id to walk newest first (see the indexes on Order).
+ */
+@Repository
+public class OrderQueryRepository {
+
+    private static final String SUMMARY = "SELECT new com.ecommerce.order.service.dto.OrderSummary("
+            + "o.id, o.clientId, o.productId, o.quantity, o.totalPrice, o.status, o.createdAt, o.updatedAt) FROM Order o";
+
+    private final EntityManager entityManager;
+
+    public OrderQueryRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /** Up to limit + 1 rows, so the caller can tell whether another page follows. */
+    public List<OrderSummary> findPage(OrderQuery query) {
+        List<String> conditions = new ArrayList<>();
+        if (query.beforeId() != null) {
+            conditions.add("o.id < :beforeId");
+        }
+        String jpql = SUMMARY + where(query, conditions) + " ORDER BY o.id DESC";
+
+        TypedQuery<OrderSummary> typed = entityManager.createQuery(jpql, OrderSummary.class);
+        bind(typed, query);
+        if (query.beforeId() != null) {
+            typed.setParameter("beforeId", query.beforeId());
+        }
+        return typed
+                .setFirstResult(query.page() * query.limit())
+                .setMaxResults(query.limit() + 1)
+                .getResultList();
+    }
+
+    public long count(OrderQuery query) {
+        TypedQuery<Long> typed = entityManager.createQuery(
+                "SELECT count(o) FROM Order o" + where(query, new ArrayList<>()), Long.class);
+        bind(typed, query);
+        return typed.getSingleResult();
+    }
+
+    private static String where(OrderQuery query, List<String> conditions) {
+        if (query.status() != null) {
+            conditions.add("o.status = :status");
+        }
+        if (query.clientId() != null) {
+            conditions.add("o.clientId = :clientId");
+        }
+        if (query.from() != null) {
+            conditions.add("o.createdAt >= :from");
+        }
+        if (query.to() != null) {
+            conditions.add("o.createdAt < :to");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    private static void bind(TypedQuery<?> typed, OrderQuery query) {
+        if (query.status() != null) {
+            typed.setParameter("status", query.status());
+        }
+        if (query.clientId() != null) {
+            typed.setParameter("clientId", query.clientId());
+        }
+        if (query.from() != null) {
+            typed.setParameter("from", query.from());
+        }
+        if (query.to() != null) {
+            typed.setParameter("to", query.to());
+        }
+    }
+}
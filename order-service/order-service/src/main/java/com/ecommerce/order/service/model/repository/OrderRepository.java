@@ -2,6 +2,22 @@ package com.ecommerce.order.service.repository;
 
 import com.ecommerce.order.service.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Moves one order to another status only if it is still in the expected
+     * one. Returns 0 when someone else moved it first.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now WHERE o.id = :id AND o.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") String from, @Param("to") String to,
+                         @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,25 @@
+package com.ecommerce.order.service.repository;
+
+import com.ecommerce.order.service.model.ProcessedOrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ProcessedOrderEventRepository extends JpaRepository<ProcessedOrderEvent, String> {
+
+    /** Returns 1 the first time an event id is seen, 0 for a redelivery. */
+    @Modifying
+    @Query(value = "INSERT INTO processed_order_events (event_id, processed_at) VALUES (:eventId, :now) " +
+                   "ON CONFLICT (event_id) DO NOTHING",
+           nativeQuery = true)
+    int markProcessed(@Param("eventId") String eventId, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedOrderEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,246 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.CallDeadline;
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.model.Client;
+import com.ecommerce.order.service.model.Product;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the product and the client for a checkout at the same time, so the
+ * wait is the slower of the two calls instead of their sum. Both calls share
+ * one deadline, and the first failure cancels the sibling: the caller returns
+ * at once and a call that has not started yet is skipped. A call already on
+ * the wire gets its Feign timeouts cut to that deadline (see CallDeadline),
+ * so it gives its thread and permit back once the caller has given up.
+ * Products are read from the local projection when it has them with enough
+ * stock for the order; unknown products, and products the projection thinks
+ * are short (it may be behind a restock), are fetched from product-service.
+ * Projected prices are only an estimate: the checkout charges the price the
+ * stock hold returns.
+ * With spring.threads.virtual.enabled the calls run on virtual threads instead
+ * of the pool, still bounded to pool size + queue capacity at a time.
+ */
+@Service
+public class CheckoutLookupService {
+
+    public record CheckoutContext(Product product, Client client) {}
+
+    public record CartContext(Map<Long, Product> products, Client client) {}
+
+    private final ProductClient productClient;
+    private final ProductCatalogProjection productProjection;
+    private final ClientProfileCache clientProfileCache;
+    private final Executor executor;
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMs;
+
+    public CheckoutLookupService(ProductClient productClient,
+                                 ProductCatalogProjection productProjection,
+                                 ClientProfileCache clientProfileCache,
+                                 @Value("${order.checkout.lookup-pool-size:32}") int poolSize,
+                                 @Value("${order.checkout.lookup-queue-capacity:256}") int queueCapacity,
+                                 @Value("${order.checkout.lookup-timeout-ms:3000}") long timeoutMs,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.productClient = productClient;
+        this.productProjection = productProjection;
+        this.clientProfileCache = clientProfileCache;
+        this.timeoutMs = timeoutMs;
+
+        if (virtualThreads) {
+            this.pool = null;
+            this.executor = boundedVirtualExecutor(poolSize + queueCapacity);
+            return;
+        }
+
+        // Bounded pool and queue: under overload checkouts are rejected instead of piling up
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "checkout-lookup-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    // One virtual thread per call; the permits keep the same overload behaviour as the pool
+    private static Executor boundedVirtualExecutor(int maxConcurrent) {
+        VirtualThreadTaskExecutor virtualThreads = new VirtualThreadTaskExecutor("checkout-lookup-");
+        Semaphore permits = new Semaphore(maxConcurrent);
+        return task -> {
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Checkout lookup limit reached");
+            }
+            try {
+                virtualThreads.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        };
+    }
+
+    /** Product and client, without a stock requirement; enough to address a notification. */
+    public CheckoutContext lookup(Long productId, Long clientId) {
+        return lookup(productId, 0, clientId);
+    }
+
+    public CheckoutContext lookup(Long productId, int quantity, Long clientId) {
+        Product known = projected(productId, quantity);
+        Both<Product, Client> found = both(() -> {
+            if (known != null) {
+                return known;
+            }
+            Product product = productClient.getProductById(productId);
+            if (product == null) {
+                throw new RuntimeException("Product service is currently unavailable. Please try again later.");
+            }
+            return product;
+        }, () -> findClient(clientId));
+        return new CheckoutContext(found.first(), found.second());
+    }
+
+    /** Same as {@link #lookup} for a whole cart: products the projection lacks come back from one batched call. */
+    public CartContext lookupCart(Map<Long, Integer> quantities, Long clientId) {
+        Set<Long> productIds = quantities.keySet();
+        Map<Long, Product> known = new HashMap<>();
+        List<Long> unknownIds = new ArrayList<>();
+        for (Long productId : productIds) {
+            Product product = projected(productId, quantities.get(productId));
+            if (product != null) {
+                known.put(productId, product);
+            } else {
+                unknownIds.add(productId);
+            }
+        }
+
+        Both<Map<Long, Product>, Client> found = both(() -> {
+            Map<Long, Product> byId = new HashMap<>(known);
+            if (!unknownIds.isEmpty()) {
+                List<Product> products = productClient.getProductsByIds(unknownIds);
+                if (products == null) {
+                    throw new RuntimeException("Product service is currently unavailable. Please try again later.");
+                }
+                byId.putAll(products.stream().collect(Collectors.toMap(Product::getId, Function.identity())));
+            }
+            for (Long productId : productIds) {
+                if (!byId.containsKey(productId)) {
+                    throw new RuntimeException("Product not found: " + productId);
+                }
+            }
+            return byId;
+        }, () -> findClient(clientId));
+        return new CartContext(found.first(), found.second());
+    }
+
+    // Only trusted when it covers the order; a short projection may just be behind
+    private Product projected(Long productId, int quantity) {
+        Product product = productProjection.get(productId);
+        return product != null && product.getQuantity() >= quantity ? product : null;
+    }
+
+    private Client findClient(Long clientId) {
+        Client client = clientProfileCache.get(clientId);
+        if (client == null) {
+            throw new RuntimeException("Client profile not found. Please log in again.");
+        }
+        return client;
+    }
+
+    private record Both<A, B>(A first, B second) {}
+
+    /** Runs both calls concurrently under the shared deadline; the first failure cancels the other. */
+    private <A, B> Both<A, B> both(Supplier<A> firstCall, Supplier<B> secondCall) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        CompletableFuture<A> first;
+        CompletableFuture<B> second;
+        try {
+            first = CompletableFuture.supplyAsync(() -> CallDeadline.within(deadlineNanos, firstCall), executor);
+            second = CompletableFuture.supplyAsync(() -> CallDeadline.within(deadlineNanos, secondCall), executor);
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Checkout is busy. Please try again in a moment.");
+        }
+
+        first.whenComplete((result, error) -> {
+            if (error != null) {
+                second.cancel(true);
+            }
+        });
+        second.whenComplete((result, error) -> {
+            if (error != null) {
+                first.cancel(true);
+            }
+        });
+
+        try {
+            CompletableFuture.allOf(first, second).get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            return new Both<>(first.join(), second.join());
+        } catch (TimeoutException e) {
+            first.cancel(true);
+            second.cancel(true);
+            throw new RuntimeException("Product or client service did not answer in time. Please try again later.");
+        } catch (InterruptedException e) {
+            first.cancel(true);
+            second.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Checkout was interrupted");
+        } catch (ExecutionException | CompletionException e) {
+            throw firstFailure(first, second, e);
+        }
+    }
+
+    /** Reports the call that actually failed rather than the cancellation it caused. */
+    private static RuntimeException firstFailure(CompletableFuture<?> first, CompletableFuture<?> second, Exception e) {
+        for (CompletableFuture<?> lookup : new CompletableFuture<?>[] { first, second }) {
+            if (lookup.isCompletedExceptionally() && !lookup.isCancelled()) {
+                try {
+                    lookup.join();
+                } catch (CompletionException failure) {
+                    if (failure.getCause() instanceof RuntimeException runtime) {
+                        return runtime;
+                    }
+                    return new RuntimeException(failure.getCause());
+                }
+            }
+        }
+        return new RuntimeException(e.getCause() != null ? e.getCause() : e);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
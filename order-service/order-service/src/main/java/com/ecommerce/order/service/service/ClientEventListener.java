@@ -0,0 +1,23 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.dto.ClientEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Eager even with lazy initialization on, otherwise the listener never registers
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class ClientEventListener {
+
+    private final ClientProfileCache clientProfileCache;
+
+    @RabbitListener(queues = "#{clientEventsQueue.name}")
+    public void onClientEvent(ClientEvent event) {
+        if (event != null && event.clientId() != null) {
+            clientProfileCache.evict(event.clientId());
+        }
+    }
+}
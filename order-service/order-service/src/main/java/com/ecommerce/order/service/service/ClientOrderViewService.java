@@ -0,0 +1,160 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.dto.OrderEvent;
+import com.ecommerce.order.service.dto.OrderSummary;
+import com.ecommerce.order.service.model.ClientOrderView;
+import com.ecommerce.order.service.repository.ClientOrderViewRepository;
+import com.ecommerce.order.service.repository.ProcessedOrderEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the per-client order view from order events. Each event only
+ * applies its own delta (one status count down, one up, the spend adjusted,
+ * one entry of the recent list replaced), so the cost of an update does not
+ * depend on how many orders the client has. Counts and spend are sums of
+ * deltas and are never clamped, so they come out right once all events of an
+ * order are in, whatever order they arrived in; until then a count can be
+ * briefly negative. A recent list entry is only replaced by a newer event.
+ */
+// Eager even with lazy initialization on, otherwise the purge never runs
+@Service
+@Lazy(false)
+public class ClientOrderViewService {
+
+    // An order counts towards lifetime spend while it is in one of these; NEEDS_REVIEW orders were charged
+    static final Set<String> SPENT_STATUSES = Set.of("PAID", "CONFIRMED", "SHIPPED", "DELIVERED", OrderService.NEEDS_REVIEW);
+
+    private final ClientOrderViewRepository viewRepository;
+    private final ProcessedOrderEventRepository processedEventRepository;
+    private final int recentSize;
+    private final Duration dedupRetention;
+
+    public ClientOrderViewService(ClientOrderViewRepository viewRepository,
+                                  ProcessedOrderEventRepository processedEventRepository,
+                                  @Value("${order.client-view.recent-size:20}") int recentSize,
+                                  @Value("${order.client-view.dedup-retention-days:7}") long dedupRetentionDays) {
+        this.viewRepository = viewRepository;
+        this.processedEventRepository = processedEventRepository;
+        this.recentSize = recentSize;
+        this.dedupRetention = Duration.ofDays(dedupRetentionDays);
+    }
+
+    /** The client's view, or an empty one when they have no orders yet. */
+    @Transactional(readOnly = true)
+    public ClientOrderView get(Long clientId) {
+        return viewRepository.findById(clientId)
+                .orElseGet(() -> ClientOrderView.builder().clientId(clientId).build());
+    }
+
+    /**
+     * Applies one event. eventId is the message id given by the outbox; an id
+     * seen before is skipped, so redelivered events are not counted twice.
+     */
+    @Transactional
+    public void apply(String eventId, OrderEvent event) {
+        if (eventId != null && processedEventRepository.markProcessed(eventId, Instant.now()) == 0) {
+            return;
+        }
+        if (event.clientId() == null || event.type() == null) {
+            return;
+        }
+
+        viewRepository.insertIfAbsent(event.clientId());
+        ClientOrderView view = viewRepository.lockById(event.clientId())
+                .orElseThrow(() -> new RuntimeException("Client order view missing for client " + event.clientId()));
+
+        Map<String, Long> counts = new HashMap<>(view.getStatusCounts());
+        List<OrderSummary> recent = new ArrayList<>(view.getRecentOrders());
+        OrderSummary stored = recent.stream()
+                .filter(order -> order.id().equals(event.orderId()))
+                .findFirst()
+                .orElse(null);
+
+        switch (event.type()) {
+            case OrderEvent.CREATED -> {
+                view.setOrderCount(view.getOrderCount() + 1);
+                adjust(counts, event.status(), 1);
+                view.setLifetimeSpend(view.getLifetimeSpend() + spendOf(event.status(), event));
+                replaceIfNewer(recent, stored, event);
+            }
+            case OrderEvent.STATUS_CHANGED -> {
+                adjust(counts, event.previousStatus(), -1);
+                adjust(counts, event.status(), 1);
+                view.setLifetimeSpend(view.getLifetimeSpend()
+                        - spendOf(event.previousStatus(), event) + spendOf(event.status(), event));
+                replaceIfNewer(recent, stored, event);
+            }
+            case OrderEvent.DELETED -> {
+                view.setOrderCount(view.getOrderCount() - 1);
+                adjust(counts, event.status(), -1);
+                view.setLifetimeSpend(view.getLifetimeSpend() - spendOf(event.status(), event));
+                if (stored != null) {
+                    recent.remove(stored);
+                }
+            }
+            default -> System.err.println("⚠️ Unknown order event type " + event.type() + " for order #" + event.orderId());
+        }
+
+        // An old order whose status changed sorts below the newest ones and falls off again
+        recent.sort(Comparator.comparing(OrderSummary::id).reversed());
+        view.setRecentOrders(new ArrayList<>(recent.subList(0, Math.min(recentSize, recent.size()))));
+        view.setStatusCounts(counts);
+        view.setUpdatedAt(Instant.now());
+        viewRepository.save(view);
+    }
+
+    /** Recomputes all views from the orders table; see {@link ClientOrderViewRepository#rebuildAll}. */
+    @Transactional
+    public int rebuildAll() {
+        return viewRepository.rebuildAll(recentSize);
+    }
+
+    @Scheduled(fixedDelayString = "${order.client-view.purge-interval-ms:3600000}")
+    public void purgeProcessedEvents() {
+        int purged = processedEventRepository.deleteProcessedBefore(Instant.now().minus(dedupRetention));
+        if (purged > 0) {
+            System.out.println("🧹 Purged " + purged + " processed order event ids");
+        }
+    }
+
+    // A late event must not overwrite what a newer one already put in the list
+    private static void replaceIfNewer(List<OrderSummary> recent, OrderSummary stored, OrderEvent event) {
+        if (stored != null) {
+            if (stored.updatedAt() != null && event.occurredAt() != null
+                    && stored.updatedAt().isAfter(event.occurredAt())) {
+                return;
+            }
+            recent.remove(stored);
+        }
+        recent.add(event.toSummary());
+    }
+
+    private static void adjust(Map<String, Long> counts, String status, long delta) {
+        if (status == null) {
+            return;
+        }
+        long count = counts.getOrDefault(status, 0L) + delta;
+        if (count == 0) {
+            counts.remove(status);
+        } else {
+            counts.put(status, count);
+        }
+    }
+
+    private static double spendOf(String status, OrderEvent event) {
+        return status != null && SPENT_STATUSES.contains(status) && event.totalPrice() != null ? event.totalPrice() : 0;
+    }
+}
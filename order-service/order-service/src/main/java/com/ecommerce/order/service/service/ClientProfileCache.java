@@ -0,0 +1,119 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.ClientClient;
+import com.ecommerce.order.service.model.Client;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded cache of client profiles in front of client-service.
+ * - Entries live for ttl; after refresh-after they are reloaded in the
+ *   background on the next read, so hot clients never wait on a miss.
+ * - Unknown ids are cached as empty for the shorter negative-ttl.
+ * - client-service update/delete events evict entries right away.
+ * Other errors are not cached: the lookup fails and the next one retries.
+ * Bulk lookups load all missing ids through the batch endpoint, 200 at a time.
+ */
+@Service
+public class ClientProfileCache {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final ClientClient clientClient;
+    private final LoadingCache<Long, Optional<Client>> cache;
+
+    public ClientProfileCache(ClientClient clientClient,
+                              @Value("${order.client-cache.max-size:50000}") long maxSize,
+                              @Value("${order.client-cache.ttl-seconds:600}") long ttlSeconds,
+                              @Value("${order.client-cache.refresh-after-seconds:300}") long refreshAfterSeconds,
+                              @Value("${order.client-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.clientClient = clientClient;
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Optional<Client>>() {
+                    @Override
+                    public long expireAfterCreate(Long id, Optional<Client> client, long currentTime) {
+                        return client.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, Optional<Client> client, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, client, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, Optional<Client> client, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .build(new CacheLoader<>() {
+                    @Override
+                    public Optional<Client> load(Long clientId) {
+                        return loadOne(clientId);
+                    }
+
+                    @Override
+                    public Map<Long, Optional<Client>> loadAll(Set<? extends Long> clientIds) {
+                        return loadBatch(clientIds);
+                    }
+                });
+    }
+
+    /** The client profile, or null when client-service does not know the id. */
+    public Client get(Long clientId) {
+        if (clientId == null) {
+            return null;
+        }
+        return cache.get(clientId).orElse(null);
+    }
+
+    /** Profiles of the known ids among clientIds; unknown ids are left out. */
+    public Map<Long, Client> getAll(Collection<Long> clientIds) {
+        Map<Long, Client> found = new HashMap<>();
+        cache.getAll(clientIds).forEach((id, client) -> client.ifPresent(c -> found.put(id, c)));
+        return found;
+    }
+
+    public void evict(Long clientId) {
+        cache.invalidate(clientId);
+    }
+
+    private Optional<Client> loadOne(Long clientId) {
+        try {
+            return Optional.ofNullable(clientClient.getClientById(clientId));
+        } catch (FeignException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+
+    private Map<Long, Optional<Client>> loadBatch(Set<? extends Long> clientIds) {
+        Map<Long, Optional<Client>> loaded = new HashMap<>();
+        List<Long> ids = new ArrayList<>(clientIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (Client client : clientClient.getClientsByIds(chunk)) {
+                loaded.put(client.getId(), Optional.of(client));
+            }
+            // Ids the batch did not return are unknown, cached like a 404
+            chunk.forEach(id -> loaded.putIfAbsent(id, Optional.empty()));
+        }
+        return loaded;
+    }
+}
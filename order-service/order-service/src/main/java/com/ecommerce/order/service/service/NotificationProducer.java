@@ -1,31 +1,79 @@
 package com.ecommerce.order.service.service;
 
 import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.model.Client;
 import com.ecommerce.order.service.model.NotificationMessage;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.ecommerce.order.service.model.Product;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 @Service
 public class NotificationProducer {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
 
-    public NotificationProducer(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public NotificationProducer(OutboxService outboxService) {
+        this.outboxService = outboxService;
     }
 
+    /**
+     * Queues the notification in the outbox; inside a transaction it is only
+     * sent if that transaction commits. The outbox row joins the caller's
+     * transaction, so a failure here rolls the whole unit back with it.
+     */
     public void sendNotification(NotificationMessage message) {
+        // JSON to direct exchange, routing key == queue name
+        outboxService.enqueue(
+                RabbitMQConfig.EXCHANGE_NAME,
+                RabbitMQConfig.QUEUE_NAME,
+                message
+        );
+        System.out.println("📤 Notification message queued for RabbitMQ (outbox).");
+    }
+
+    /** Queues all messages in one batch; like a single send, it fails together with the caller's transaction. */
+    public void sendNotifications(List<NotificationMessage> messages) {
+        outboxService.enqueueAll(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.QUEUE_NAME, messages);
+        System.out.println("📤 " + messages.size() + " notification messages queued for RabbitMQ (outbox).");
+    }
+
+    // The order is already committed and paid; losing the confirmation mail must not fail the checkout
+    public void sendOrderPaid(Client client, Product product, int quantity, double totalPrice) {
+        sendAfterCommit(new NotificationMessage(
+                List.of(client.getEmail()),
+                "+212660553886",
+                "Order Success",
+                String.format("Hello %s, your order for %dx %s has been paid successfully! Total: %.2f MAD",
+                        client.getFullName(), quantity, product.getName(), totalPrice)
+        ));
+    }
+
+    public void sendCartOrderPaid(Client client, List<String> items, double totalPrice) {
+        sendAfterCommit(new NotificationMessage(
+                List.of(client.getEmail()),
+                "+212660553886",
+                "Order Success",
+                String.format("Hello %s, your order for %s has been paid successfully! Total: %.2f MAD",
+                        client.getFullName(), String.join(", ", items), totalPrice)
+        ));
+    }
+
+    /**
+     * Only for notifications sent outside any transaction, after the order
+     * itself committed: the outbox write runs in its own transaction, so a
+     * failure here cannot roll anything else back and is only logged.
+     */
+    private void sendAfterCommit(NotificationMessage message) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            sendNotification(message);
+            return;
+        }
         try {
-            // Send JSON to direct exchange, routing key == queue name
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.EXCHANGE_NAME,
-                    RabbitMQConfig.QUEUE_NAME,
-                    message
-            );
-            System.out.println("📤 Notification message sent to RabbitMQ (JSON).");
+            sendNotification(message);
         } catch (Exception e) {
-            // Do NOT fail the order flow if RabbitMQ is temporarily down
-            System.out.println("⚠️ Failed to publish notification to RabbitMQ: " + e.getMessage());
+            System.err.println("⚠️ Failed to queue notification for a committed order: " + e.getMessage());
         }
     }
 }
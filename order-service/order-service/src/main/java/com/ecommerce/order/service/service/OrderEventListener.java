@@ -0,0 +1,26 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.dto.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+// Eager even with lazy initialization on, otherwise the listener never registers
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class OrderEventListener {
+
+    private final ClientOrderViewService clientOrderViewService;
+
+    @RabbitListener(queues = RabbitMQConfig.CLIENT_VIEW_QUEUE, containerFactory = "clientViewContainerFactory",
+            concurrency = "${order.client-view.concurrency:1-4}")
+    public void onOrderEvent(OrderEvent event,
+                             @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        clientOrderViewService.apply(messageId, event);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.dto.OrderEvent;
+import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.repository.OrderJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queues order lifecycle events in the outbox. Call it in the transaction
+ * that saves the change, so an event goes out exactly when the change commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderEventPublisher {
+
+    private final OutboxService outboxService;
+
+    public void created(Order order) {
+        publish(event(OrderEvent.CREATED, order, null, order.getStatus()));
+    }
+
+    public void statusChanged(Order order, String previousStatus) {
+        if (previousStatus != null && previousStatus.equals(order.getStatus())) {
+            return;
+        }
+        publish(event(OrderEvent.STATUS_CHANGED, order, previousStatus, order.getStatus()));
+    }
+
+    public void deleted(Order order) {
+        publish(event(OrderEvent.DELETED, order, order.getStatus(), order.getStatus()));
+    }
+
+    /** Events for a bulk status change, queued with one batched insert. */
+    public void statusChanged(List<OrderJdbcRepository.TransitionedOrder> orders, String previousStatus, String status) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxService.enqueueAll(RabbitMQConfig.ORDER_EVENTS_EXCHANGE, "", orders.stream()
+                .map(order -> new OrderEvent(OrderEvent.STATUS_CHANGED, order.id(), order.clientId(),
+                        order.productId(), order.quantity(), order.totalPrice(), previousStatus, status,
+                        order.createdAt(), now))
+                .toList());
+    }
+
+    private void publish(OrderEvent event) {
+        outboxService.enqueue(RabbitMQConfig.ORDER_EVENTS_EXCHANGE, "", event);
+    }
+
+    private static OrderEvent event(String type, Order order, String previousStatus, String status) {
+        return new OrderEvent(type, order.getId(), order.getClientId(), order.getProductId(), order.getQuantity(),
+                order.getTotalPrice(), previousStatus, status, order.getCreatedAt(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.dto.HeldStock;
+import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.model.OrderLine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prices an order from its stock hold. Checkout prices orders from the
+ * product projection, which may be behind a price change; the hold carries
+ * product-service's price at hold time, and that is what gets charged.
+ */
+final class OrderPricing {
+
+    private OrderPricing() {
+    }
+
+    /** Applies the held prices to the order; true when its total or a line price changed. */
+    static boolean reprice(Order order, List<HeldStock> held) {
+        if (held == null || held.isEmpty()) {
+            return false;
+        }
+        Map<Long, Double> prices = new HashMap<>();
+        for (HeldStock line : held) {
+            if (line.productId() != null && line.unitPrice() != null) {
+                prices.put(line.productId(), line.unitPrice());
+            }
+        }
+
+        boolean changed = false;
+        double total;
+        if (order.getLines() == null || order.getLines().isEmpty()) {
+            Double price = prices.get(order.getProductId());
+            if (price == null) {
+                return false;
+            }
+            total = price * order.getQuantity();
+        } else {
+            total = 0;
+            for (OrderLine line : order.getLines()) {
+                Double price = prices.get(line.getProductId());
+                if (price != null && !price.equals(line.getUnitPrice())) {
+                    line.setUnitPrice(price);
+                    changed = true;
+                }
+                total += line.getUnitPrice() * line.getQuantity();
+            }
+        }
+        if (order.getTotalPrice() == null || Double.compare(order.getTotalPrice(), total) != 0) {
+            order.setTotalPrice(total);
+            changed = true;
+        }
+        return changed;
+    }
+}
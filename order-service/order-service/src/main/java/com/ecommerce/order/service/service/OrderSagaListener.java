@@ -0,0 +1,23 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.dto.SagaCommand;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Eager even with lazy initialization on, otherwise the listener never registers
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class OrderSagaListener {
+
+    private final OrderSagaService orderSagaService;
+
+    @RabbitListener(queues = RabbitMQConfig.SAGA_QUEUE, containerFactory = "sagaContainerFactory",
+            concurrency = "${order.saga.concurrency:4-16}")
+    public void onCommand(SagaCommand command) {
+        orderSagaService.handle(command);
+    }
+}
@@ -0,0 +1,276 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.PaymentClient;
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.dto.PaymentRequest;
+import com.ecommerce.order.service.dto.PaymentResult;
+import com.ecommerce.order.service.dto.SagaCommand;
+import com.ecommerce.order.service.dto.StockLine;
+import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.repository.OrderRepository;
+import feign.FeignException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Asynchronous checkout. The request only stores a PENDING order and queues
+ * the first step; each step then runs from RabbitMQ and queues the next one:
+ *
+ *   PENDING --RESERVE--> STOCK_RESERVED --PAY--> PAID --CONFIRM--> (hold confirmed)
+ *
+ * Steps are queued through the outbox together with the status change that
+ * leads to them. Transient failures are retried by re-queueing the step
+ * through a delay queue, so a struggling downstream gets a breather. When a step gives
+ * up, the work done so far is compensated: the stock hold is released and the
+ * order ends up CANCELED or PAYMENT_FAILED. Every step checks the order status
+ * first, so a redelivered step is a no-op.
+ *
+ * A paid order cannot be compensated, so confirming its hold never gives up
+ * on a transient failure; until it succeeds the sold units stay held. If
+ * product-service refuses for good (the hold lapsed and the stock is gone),
+ * the order moves to NEEDS_REVIEW.
+ */
+@Service
+public class OrderSagaService {
+
+    public static final String STOCK_RESERVED = "STOCK_RESERVED";
+
+    private final OrderRepository orderRepository;
+    private final CheckoutLookupService checkoutLookupService;
+    private final ProductClient productClient;
+    private final PaymentClient paymentClient;
+    private final NotificationProducer notificationProducer;
+    private final OutboxService outboxService;
+    private final OrderEventPublisher orderEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public OrderSagaService(OrderRepository orderRepository,
+                            CheckoutLookupService checkoutLookupService,
+                            ProductClient productClient,
+                            PaymentClient paymentClient,
+                            NotificationProducer notificationProducer,
+                            OutboxService outboxService,
+                            OrderEventPublisher orderEventPublisher,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${order.saga.max-attempts:3}") int maxAttempts) {
+        this.orderRepository = orderRepository;
+        this.checkoutLookupService = checkoutLookupService;
+        this.productClient = productClient;
+        this.paymentClient = paymentClient;
+        this.notificationProducer = notificationProducer;
+        this.outboxService = outboxService;
+        this.orderEventPublisher = orderEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Stores the order and starts the saga. The price is filled in by the
+     * RESERVE step, so no downstream service is called on the request thread.
+     */
+    public Order startCheckout(Long productId, Integer quantity, Long clientId) {
+        if (quantity == null || quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+
+        // The order and its first saga step commit together, so the broker is not on the request path
+        Order order = transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(Order.builder()
+                    .productId(productId)
+                    .clientId(clientId)
+                    .quantity(quantity)
+                    .totalPrice(0.0)
+                    .status("PENDING")
+                    .build());
+            orderEventPublisher.created(saved);
+            send(new SagaCommand(saved.getId(), SagaCommand.Step.RESERVE, 1));
+            return saved;
+        });
+        System.out.println("📥 Order #" + order.getId() + " accepted for asynchronous checkout");
+        return order;
+    }
+
+    public void handle(SagaCommand command) {
+        Order order = orderRepository.findById(command.orderId()).orElse(null);
+        if (order == null) {
+            System.err.println("⚠️ Saga step " + command.step() + " for unknown order #" + command.orderId());
+            return;
+        }
+
+        try {
+            switch (command.step()) {
+                case RESERVE -> reserve(order, command);
+                case PAY -> pay(order, command);
+                case CONFIRM -> confirm(order, true);
+                case CONFIRM_HOLD -> confirm(order, false);
+            }
+        } catch (Exception e) {
+            boolean paid = command.step() == SagaCommand.Step.CONFIRM || command.step() == SagaCommand.Step.CONFIRM_HOLD;
+            if (isTransient(e) && (paid || command.attempt() < maxAttempts)) {
+                System.err.println("🔁 Saga step " + command.step() + " for order #" + order.getId()
+                        + " failed (attempt " + command.attempt() + "), retrying: " + e.getMessage());
+                sendLater(command.retry());
+            } else {
+                compensate(order, command.step(), e.getMessage());
+            }
+        }
+    }
+
+    private void reserve(Order order, SagaCommand command) {
+        if (!"PENDING".equals(order.getStatus())) {
+            return;
+        }
+
+        CheckoutLookupService.CheckoutContext context =
+                checkoutLookupService.lookup(order.getProductId(), order.getQuantity(), order.getClientId());
+        if (context.product().getQuantity() < order.getQuantity()) {
+            compensate(order, SagaCommand.Step.RESERVE, "Insufficient stock for product: " + context.product().getName());
+            return;
+        }
+
+        order.setTotalPrice(context.product().getPrice() * order.getQuantity());
+        // Holds are idempotent per reference, so a redelivered step cannot hold twice. The order is
+        // charged at the held price, which may be newer than the projected one.
+        OrderPricing.reprice(order, productClient.holdStock(holdReference(order),
+                List.of(new StockLine(order.getProductId(), order.getQuantity()))));
+        order.setStatus(STOCK_RESERVED);
+        saveAndSend(order, "PENDING", command.next(SagaCommand.Step.PAY));
+    }
+
+    private void pay(Order order, SagaCommand command) {
+        if (!STOCK_RESERVED.equals(order.getStatus())) {
+            return;
+        }
+
+        // A retry may follow a call that charged but never answered: look before paying again
+        PaymentResult payment = command.attempt() > 1 ? findPaidPayment(order.getId()) : null;
+        if (payment == null) {
+            payment = paymentClient.processPayment("order-" + order.getId(),
+                    new PaymentRequest(order.getId(), order.getTotalPrice(), "CREDIT_CARD"));
+        }
+        if (payment == null || !payment.isPaid()) {
+            compensate(order, SagaCommand.Step.PAY, "Payment was declined");
+            return;
+        }
+
+        order.setStatus("PAID");
+        saveAndSend(order, STOCK_RESERVED, command.next(SagaCommand.Step.CONFIRM));
+    }
+
+    /**
+     * Queues a confirmation of the order's stock hold after the retry delay.
+     * Call it in the transaction that marks the order PAID outside the saga, so
+     * the hold is confirmed even if the caller's own attempt fails or never runs.
+     */
+    public void confirmHoldLater(Long orderId) {
+        sendLater(new SagaCommand(orderId, SagaCommand.Step.CONFIRM_HOLD, 1));
+    }
+
+    // Confirming is idempotent in product-service, so a backup confirmation after a successful one is harmless
+    private void confirm(Order order, boolean notify) {
+        if (!"PAID".equals(order.getStatus())) {
+            return;
+        }
+
+        productClient.confirmHold(holdReference(order));
+        System.out.println("[OrderSaga] Stock hold confirmed for order #" + order.getId());
+        if (!notify) {
+            return;
+        }
+
+        CheckoutLookupService.CheckoutContext context =
+                checkoutLookupService.lookup(order.getProductId(), order.getClientId());
+        notificationProducer.sendOrderPaid(context.client(), context.product(), order.getQuantity(), order.getTotalPrice());
+    }
+
+    private void compensate(Order order, SagaCommand.Step failedStep, String reason) {
+        switch (failedStep) {
+            case RESERVE -> {
+                releaseHoldQuietly(holdReference(order));
+                saveStatus(order, "CANCELED");
+            }
+            case PAY -> {
+                releaseHoldQuietly(holdReference(order));
+                saveStatus(order, "PAYMENT_FAILED");
+            }
+            // Only reached when product-service refused for good: the customer paid for stock that is gone
+            case CONFIRM, CONFIRM_HOLD -> {
+                if (flagForReview(order)) {
+                    System.err.println("🚨 Stock hold for paid order #" + order.getId() + " cannot be confirmed; order set to "
+                            + OrderService.NEEDS_REVIEW + " for a refund or manual fulfilment: " + reason);
+                }
+            }
+        }
+        System.err.println("⚠️ Checkout saga for order #" + order.getId() + " stopped at " + failedStep + ": " + reason);
+    }
+
+    private PaymentResult findPaidPayment(Long orderId) {
+        return paymentClient.getPaymentsByOrder(orderId).stream()
+                .filter(PaymentResult::isPaid)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void releaseHoldQuietly(String holdReference) {
+        try {
+            productClient.releaseHold(holdReference);
+        } catch (Exception e) {
+            // The hold expires on its own in product-service
+            System.err.println("⚠️ Failed to release stock hold " + holdReference + ": " + e.getMessage());
+        }
+    }
+
+    // Client errors (4xx) will fail the same way again; everything else is worth another try
+    private static boolean isTransient(Exception e) {
+        return !(e instanceof FeignException feign) || feign.status() < 400 || feign.status() >= 500;
+    }
+
+    private static String holdReference(Order order) {
+        return "order-" + order.getId();
+    }
+
+    // The status change, its order event and the next step commit together
+    private void saveAndSend(Order order, String previousStatus, SagaCommand next) {
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.save(order);
+            orderEventPublisher.statusChanged(order, previousStatus);
+            send(next);
+        });
+    }
+
+    private boolean flagForReview(Order order) {
+        Boolean flagged = transactionTemplate.execute(status -> {
+            if (orderRepository.transitionStatus(order.getId(), "PAID", OrderService.NEEDS_REVIEW, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            order.setStatus(OrderService.NEEDS_REVIEW);
+            orderEventPublisher.statusChanged(order, "PAID");
+            return true;
+        });
+        return Boolean.TRUE.equals(flagged);
+    }
+
+    private void saveStatus(Order order, String newStatus) {
+        String previousStatus = order.getStatus();
+        order.setStatus(newStatus);
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.save(order);
+            orderEventPublisher.statusChanged(order, previousStatus);
+        });
+    }
+
+    private void send(SagaCommand command) {
+        outboxService.enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_QUEUE, command);
+    }
+
+    // Comes back on the saga queue after order.saga.retry-delay-ms
+    private void sendLater(SagaCommand command) {
+        outboxService.enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_RETRY_QUEUE, command);
+    }
+}
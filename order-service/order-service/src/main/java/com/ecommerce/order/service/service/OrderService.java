@@ -1,55 +1,115 @@
 package com.ecommerce.order.service.service;
 
 import com.ecommerce.order.service.client.ProductClient;
-import com.ecommerce.order.service.client.ClientClient;
 import com.ecommerce.order.service.client.PaymentClient;
+import com.ecommerce.order.service.dto.BulkStatusRequest;
+import com.ecommerce.order.service.dto.BulkStatusResult;
+import com.ecommerce.order.service.dto.HeldStock;
+import com.ecommerce.order.service.dto.OrderPage;
+import com.ecommerce.order.service.dto.OrderQuery;
+import com.ecommerce.order.service.dto.OrderSummary;
+import com.ecommerce.order.service.dto.PaymentEvent;
 import com.ecommerce.order.service.dto.PaymentRequest;
+import com.ecommerce.order.service.dto.PaymentResult;
+import com.ecommerce.order.service.dto.StockLine;
 import com.ecommerce.order.service.model.Client;
 import com.ecommerce.order.service.model.NotificationMessage;
 import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.model.OrderLine;
 import com.ecommerce.order.service.model.Product;
+import com.ecommerce.order.service.repository.OrderJdbcRepository;
+import com.ecommerce.order.service.repository.OrderQueryRepository;
 import com.ecommerce.order.service.repository.OrderRepository;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class OrderService {
 
+    // Charged, but the checkout had already given the order up: needs a refund or a manual fulfilment
+    public static final String NEEDS_REVIEW = "NEEDS_REVIEW";
+
     private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
     private final ProductClient productClient;
-    private final ClientClient clientClient;
+    private final ClientProfileCache clientProfileCache;
     private final PaymentClient paymentClient;
-    private final RabbitTemplate rabbitTemplate;
+    private final CheckoutLookupService checkoutLookupService;
+    private final NotificationProducer notificationProducer;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderSagaService orderSagaService;
+    private final TransactionTemplate transactionTemplate;
+    private final int bulkMaxRows;
+
+    public OrderService(OrderRepository orderRepository,
+                        OrderQueryRepository orderQueryRepository,
+                        OrderJdbcRepository orderJdbcRepository,
+                        ProductClient productClient,
+                        ClientProfileCache clientProfileCache,
+                        PaymentClient paymentClient,
+                        CheckoutLookupService checkoutLookupService,
+                        NotificationProducer notificationProducer,
+                        OrderEventPublisher orderEventPublisher,
+                        OrderSagaService orderSagaService,
+                        TransactionTemplate transactionTemplate,
+                        @Value("${order.bulk-status.max-rows:10000}") int bulkMaxRows) {
+        this.orderRepository = orderRepository;
+        this.orderQueryRepository = orderQueryRepository;
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.productClient = productClient;
+        this.clientProfileCache = clientProfileCache;
+        this.paymentClient = paymentClient;
+        this.checkoutLookupService = checkoutLookupService;
+        this.notificationProducer = notificationProducer;
+        this.orderEventPublisher = orderEventPublisher;
+        this.orderSagaService = orderSagaService;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkMaxRows = bulkMaxRows;
+    }
 
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
 
+    public OrderPage getOrderPage(OrderQuery query) {
+        List<OrderSummary> rows = orderQueryRepository.findPage(query);
+        if (rows.size() <= query.limit()) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderSummary> items = rows.subList(0, query.limit());
+        return new OrderPage(items, OrderQuery.cursorAfter(items.get(items.size() - 1).id()));
+    }
+
+    public long countOrders(OrderQuery query) {
+        return orderQueryRepository.count(query);
+    }
+
     public Order getOrderById(Long id) {
         return orderRepository.findById(id).orElse(null);
     }
 
     public Order createOrder(Long productId, Integer quantity, Long clientId) {
-        Product product = productClient.getProductById(productId);
-        
-        if (product == null) {
-            throw new RuntimeException("Product service is currently unavailable. Please try again later.");
-        }
-        
+        // ⚡ Product and client are looked up in parallel under one deadline
+        CheckoutLookupService.CheckoutContext context = checkoutLookupService.lookup(productId, quantity, clientId);
+        Product product = context.product();
+        Client client = context.client();
+
         if (product.getQuantity() < quantity) {
             throw new RuntimeException("Insufficient stock for product: " + product.getName() + ". Available: " + product.getQuantity());
         }
 
-        Client client = clientClient.getClientById(clientId);
-        if (client == null) {
-            throw new RuntimeException("Client profile not found. Please log in again.");
-        }
-
         double totalPrice = product.getPrice() * quantity;
 
         Order order = Order.builder()
@@ -60,41 +120,196 @@ public class OrderService {
                 .status("PENDING")
                 .build();
 
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder = saveNew(order);
+        holdAndCharge(savedOrder, List.of(new StockLine(productId, quantity)), "product: " + product.getName());
+
+        // ✅ Send notification message
+        notificationProducer.sendOrderPaid(client, product, quantity, savedOrder.getTotalPrice());
+
+        return savedOrder;
+    }
+
+    /**
+     * Checks out a whole cart as one order: one batched product lookup, one
+     * stock hold for all lines, one payment for the total and one notification.
+     */
+    public Order createCartOrder(Long clientId, List<StockLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("Cart is empty");
+        }
+
+        // Same product twice in the cart becomes one line
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (StockLine line : lines) {
+            if (line.productId() == null || line.quantity() <= 0) {
+                throw new RuntimeException("Invalid cart line: " + line);
+            }
+            quantities.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+
+        CheckoutLookupService.CartContext context =
+                checkoutLookupService.lookupCart(quantities, clientId);
+
+        List<OrderLine> orderLines = new ArrayList<>();
+        List<StockLine> stockLines = new ArrayList<>();
+        List<String> items = new ArrayList<>();
+        double totalPrice = 0;
+        int totalQuantity = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = context.products().get(entry.getKey());
+            int quantity = entry.getValue();
+            if (product.getQuantity() < quantity) {
+                throw new RuntimeException("Insufficient stock for product: " + product.getName() + ". Available: " + product.getQuantity());
+            }
+            orderLines.add(OrderLine.builder()
+                    .productId(product.getId())
+                    .quantity(quantity)
+                    .unitPrice(product.getPrice())
+                    .build());
+            stockLines.add(new StockLine(product.getId(), quantity));
+            items.add(quantity + "x " + product.getName());
+            totalPrice += product.getPrice() * quantity;
+            totalQuantity += quantity;
+        }
+
+        Order savedOrder = saveNew(Order.builder()
+                .clientId(clientId)
+                .quantity(totalQuantity)
+                .totalPrice(totalPrice)
+                .status("PENDING")
+                .lines(orderLines)
+                .build());
+        holdAndCharge(savedOrder, stockLines, "your cart");
+
+        notificationProducer.sendCartOrderPaid(context.client(), items, savedOrder.getTotalPrice());
+        return savedOrder;
+    }
+
+    /**
+     * Holds stock for all lines, charges the order and confirms the hold.
+     * The order is charged at the prices the hold was made at, which may
+     * differ from the projected prices it was created with. A failed hold or
+     * payment is compensated; once the payment went through the order stays
+     * PAID, like in the checkout saga.
+     */
+    private void holdAndCharge(Order savedOrder, List<StockLine> stockLines, String description) {
+        // 🔒 Hold the stock before charging, so a sold-out product fails fast instead of after payment
+        String holdReference = "order-" + savedOrder.getId();
+        List<HeldStock> held;
+        try {
+            held = productClient.holdStock(holdReference, stockLines);
+        } catch (Exception e) {
+            changeStatus(savedOrder, "CANCELED");
+            if (e instanceof ResponseStatusException rejected) {
+                throw new ResponseStatusException(rejected.getStatusCode(),
+                        "Could not reserve stock for " + description + ". " + rejected.getReason());
+            }
+            throw new RuntimeException("Could not reserve stock for " + description + ". " + e.getMessage());
+        }
 
         // ✅ Process Payment
         try {
-            paymentClient.processPayment(new PaymentRequest(savedOrder.getId(), totalPrice, "CREDIT_CARD"));
-            savedOrder.setStatus("PAID");
-            orderRepository.save(savedOrder);
-            
-            // 📉 Reduce stock after successful payment
-            productClient.reduceStock(productId, quantity);
-            System.out.println("[OrderService] Stock reduced for Product ID: " + productId + " Quantity: " + quantity);
-            
+            repriceFromHold(savedOrder, held);
+            PaymentResult payment = paymentClient.processPayment("order-" + savedOrder.getId(),
+                    new PaymentRequest(savedOrder.getId(), savedOrder.getTotalPrice(), "CREDIT_CARD"));
+            if (payment == null || !payment.isPaid()) {
+                throw new RuntimeException("Payment was declined");
+            }
         } catch (Exception e) {
-            System.err.println("⚠️ Payment failed or stock update failed for order #" + savedOrder.getId() + ": " + e.getMessage());
-            savedOrder.setStatus("PAYMENT_FAILED");
-            orderRepository.save(savedOrder);
+            System.err.println("⚠️ Payment failed for order #" + savedOrder.getId() + ": " + e.getMessage());
+            if (!failPayment(savedOrder)) {
+                // The payment result event got here first: the charge went through after all
+                System.out.println("💳 Order #" + savedOrder.getId() + " was paid despite the failed call, keeping the sale");
+                confirmHold(savedOrder, holdReference, stockLines);
+                return;
+            }
+            releaseHoldQuietly(holdReference);
+            if (e instanceof ResponseStatusException rejected) {
+                // A guarded downstream refused the call: keep its 503 so the client knows to retry later
+                throw new ResponseStatusException(rejected.getStatusCode(),
+                        "Order created but payment failed: " + rejected.getReason());
+            }
             throw new RuntimeException("Order created but payment failed: " + e.getMessage());
         }
 
-        // ✅ Send notification message
-        try {
-            NotificationMessage notification = new NotificationMessage(
-                    List.of(client.getEmail()), 
-                    "+212660553886",
-                    "Order Success",
-                    String.format("Hello %s, your order for %dx %s has been paid successfully! Total: %.2f MAD", 
-                        client.getFullName(), quantity, product.getName(), totalPrice)
-            );
+        // The customer is charged from here on: never compensate into PAYMENT_FAILED. If this save
+        // fails, the payment result event from payment-service still marks the order PAID.
+        markPaid(savedOrder);
 
-            rabbitTemplate.convertAndSend("notificationExchange", "notificationQueue", notification);
+        // 📉 Turn the hold into a sale after successful payment
+        confirmHold(savedOrder, holdReference, stockLines);
+    }
+
+    // markPaid queued a backup confirmation through the saga, which retries until product-service confirms
+    private void confirmHold(Order order, String holdReference, List<StockLine> stockLines) {
+        try {
+            productClient.confirmHold(holdReference);
+            System.out.println("[OrderService] Stock hold confirmed for order #" + order.getId() + ": " + stockLines);
         } catch (Exception e) {
-            System.err.println("⚠️ Notification failed: " + e.getMessage());
+            System.err.println("⚠️ Could not confirm stock hold " + holdReference + " for paid order #"
+                    + order.getId() + " yet, retrying in the background: " + e.getMessage());
         }
+    }
 
-        return savedOrder;
+    private void repriceFromHold(Order order, List<HeldStock> held) {
+        if (!OrderPricing.reprice(order, held)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> orderRepository.save(order));
+        System.out.println("[OrderService] Order #" + order.getId() + " repriced from the stock hold: " + order.getTotalPrice());
+    }
+
+    // Each save that creates an order or changes its status queues the matching order event with it
+    private Order saveNew(Order order) {
+        return transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(order);
+            orderEventPublisher.created(saved);
+            return saved;
+        });
+    }
+
+    private void changeStatus(Order order, String newStatus) {
+        String previousStatus = order.getStatus();
+        order.setStatus(newStatus);
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRepository.save(order);
+            orderEventPublisher.statusChanged(order, previousStatus);
+        });
+    }
+
+    // Only while still PENDING: a payment result event that already marked the order PAID wins
+    private boolean failPayment(Order order) {
+        Boolean failed = transactionTemplate.execute(status -> {
+            if (orderRepository.transitionStatus(order.getId(), "PENDING", "PAYMENT_FAILED", LocalDateTime.now()) == 0) {
+                return false;
+            }
+            order.setStatus("PAYMENT_FAILED");
+            orderEventPublisher.statusChanged(order, "PENDING");
+            return true;
+        });
+        return Boolean.TRUE.equals(failed);
+    }
+
+    // The payment result event may have marked the order paid first; only one side emits the change.
+    // The backup hold confirmation is queued either way, in the same transaction.
+    private void markPaid(Order order) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (orderRepository.transitionStatus(order.getId(), "PENDING", "PAID", LocalDateTime.now()) > 0) {
+                order.setStatus("PAID");
+                orderEventPublisher.statusChanged(order, "PENDING");
+            }
+            orderSagaService.confirmHoldLater(order.getId());
+        });
+        order.setStatus("PAID");
+    }
+
+    private void releaseHoldQuietly(String holdReference) {
+        try {
+            productClient.releaseHold(holdReference);
+        } catch (Exception e) {
+            // The hold expires on its own in product-service
+            System.err.println("⚠️ Failed to release stock hold " + holdReference + ": " + e.getMessage());
+        }
     }
 
     public Order updateOrderStatus(Long id, String newStatus) {
@@ -103,34 +318,226 @@ public class OrderService {
 
         String oldStatus = order.getStatus();
         order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
 
-        // Send notification about status change
+        Client client = null;
         try {
-            Client client = clientClient.getClientById(order.getClientId());
-            if (client != null) {
+            client = clientProfileCache.get(order.getClientId());
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to look up client for status update notification: " + e.getMessage());
+        }
+
+        // The status change and its notification commit together
+        Client recipient = client;
+        Order updatedOrder = transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(order);
+            orderEventPublisher.statusChanged(saved, oldStatus);
+            if (recipient != null) {
                 String statusMessage = getStatusChangeMessage(newStatus, order.getId(), order.getTotalPrice());
-                
-                NotificationMessage notification = new NotificationMessage(
-                        List.of(client.getEmail()),
+                notificationProducer.sendNotification(new NotificationMessage(
+                        List.of(recipient.getEmail()),
                         "+212660553886",
                         "Order Status Update",
                         statusMessage
-                );
+                ));
+            }
+            return saved;
+        });
 
-                rabbitTemplate.convertAndSend(
-                        "notificationExchange",
-                        "notificationQueue",
-                        notification
-                );
+        if (recipient != null) {
+            System.out.println("📤 Queued status update notification for order #" + id + ": " + oldStatus + " → " + newStatus);
+        }
+        return updatedOrder;
+    }
 
-                System.out.println("📤 Sent status update notification for order #" + id + ": " + oldStatus + " → " + newStatus);
+    /**
+     * Applies a payment result event from payment-service: a PAID payment moves
+     * a PENDING order to PAID and notifies the client. A PAID payment for an
+     * order the checkout already gave up (PAYMENT_FAILED or CANCELED, e.g. after
+     * a payment call that timed out but charged) moves it to NEEDS_REVIEW with
+     * an alert, since its stock went back on sale. While the saga is still
+     * paying the event is retried. Anything else changes nothing, so redelivered
+     * events and payments that checkout already applied are no-ops. Exceptions
+     * make the listener retry the event.
+     */
+    public void applyPaymentResult(PaymentEvent event) {
+        if (!event.isPaid()) {
+            System.out.println("💳 Payment #" + event.paymentId() + " for order #" + event.orderId()
+                    + " ended " + event.status() + ", order left as is");
+            return;
+        }
+        Order order = orderRepository.findById(event.orderId()).orElse(null);
+        if (order == null) {
+            System.err.println("⚠️ Payment #" + event.paymentId() + " for unknown order #" + event.orderId());
+            return;
+        }
+        switch (order.getStatus()) {
+            case "PENDING" -> { }
+            case "PAYMENT_FAILED", "CANCELED" -> {
+                flagChargedOrder(order, event);
+                return;
+            }
+            // The saga either finds this payment on its next PAY attempt or compensates; look again afterwards
+            case OrderSagaService.STOCK_RESERVED -> throw new IllegalStateException(
+                    "Checkout of order #" + order.getId() + " is still paying, payment #" + event.paymentId() + " applied later");
+            default -> {
+                return;
             }
+        }
+
+        Client client = null;
+        try {
+            client = clientProfileCache.get(order.getClientId());
         } catch (Exception e) {
-            System.err.println("⚠️ Failed to send status update notification: " + e.getMessage());
+            System.err.println("⚠️ Failed to look up client for payment notification: " + e.getMessage());
         }
 
-        return updatedOrder;
+        Client recipient = client;
+        Boolean moved = transactionTemplate.execute(status -> {
+            if (orderRepository.transitionStatus(order.getId(), "PENDING", "PAID", LocalDateTime.now()) == 0) {
+                return false;
+            }
+            order.setStatus("PAID");
+            orderEventPublisher.statusChanged(order, "PENDING");
+            // The checkout that charged may be gone; nothing else would confirm its hold then
+            orderSagaService.confirmHoldLater(order.getId());
+            if (recipient != null) {
+                notificationProducer.sendNotification(new NotificationMessage(
+                        List.of(recipient.getEmail()),
+                        "+212660553886",
+                        "Order Status Update",
+                        getStatusChangeMessage("PAID", order.getId(), order.getTotalPrice())
+                ));
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(moved)) {
+            System.out.println("💳 Order #" + order.getId() + " marked PAID from payment #" + event.paymentId());
+        }
+    }
+
+    private void flagChargedOrder(Order order, PaymentEvent event) {
+        String previousStatus = order.getStatus();
+        Boolean flagged = transactionTemplate.execute(status -> {
+            if (orderRepository.transitionStatus(order.getId(), previousStatus, NEEDS_REVIEW, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            order.setStatus(NEEDS_REVIEW);
+            orderEventPublisher.statusChanged(order, previousStatus);
+            return true;
+        });
+        if (Boolean.TRUE.equals(flagged)) {
+            System.err.println("🚨 Payment #" + event.paymentId() + " charged " + event.amount() + " for order #"
+                    + order.getId() + " that was " + previousStatus + "; order set to " + NEEDS_REVIEW
+                    + " for a refund or manual fulfilment");
+        }
+    }
+
+    private static final Set<String> BULK_STATUSES = Set.of("PENDING", "PAID", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELED");
+
+    /**
+     * Moves all matching orders from one status to another in one UPDATE and
+     * queues one notification per client, not per order. At most
+     * order.bulk-status.max-rows orders move per call; repeat the request while
+     * hasMore is true. Notifications are queued after the status change has
+     * committed; if that fails, the orders have still moved.
+     */
+    public BulkStatusResult bulkUpdateStatus(BulkStatusRequest request) {
+        String from = request.from() == null ? null : request.from().toUpperCase();
+        String to = request.to() == null ? null : request.to().toUpperCase();
+        // Null checks first: Set.of rejects contains(null) with an exception
+        if (from == null || to == null || !BULK_STATUSES.contains(from) || !BULK_STATUSES.contains(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to must be one of " + BULK_STATUSES);
+        }
+        if (from.equals(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to must differ");
+        }
+        if (request.ids() != null && (request.ids().isEmpty() || request.ids().size() > bulkMaxRows)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must hold between 1 and " + bulkMaxRows + " orders");
+        }
+
+        // The status change and its events commit together
+        List<OrderJdbcRepository.TransitionedOrder> changed = transactionTemplate.execute(status -> {
+            List<OrderJdbcRepository.TransitionedOrder> moved = orderJdbcRepository.transitionStatus(
+                    from, to, request.ids(), request.createdFrom(), request.createdTo(), bulkMaxRows);
+            if (!moved.isEmpty()) {
+                orderEventPublisher.statusChanged(moved, from, to);
+            }
+            return moved;
+        });
+
+        // Client lookups may go to client-service: do them once the row locks are released
+        int queued = queueStatusNotifications(changed, to);
+        System.out.println("📦 Moved " + changed.size() + " orders from " + from + " to " + to
+                + ", queued " + queued + " notifications");
+        return new BulkStatusResult(changed.size(),
+                changed.stream().map(OrderJdbcRepository.TransitionedOrder::id).toList(),
+                queued,
+                changed.size() == bulkMaxRows);
+    }
+
+    private int queueStatusNotifications(List<OrderJdbcRepository.TransitionedOrder> changed, String newStatus) {
+        List<NotificationMessage> notifications = statusNotifications(changed, newStatus);
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> notificationProducer.sendNotifications(notifications));
+            return notifications.size();
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to queue status update notifications: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /** One message per client, covering all of that client's orders. */
+    private List<NotificationMessage> statusNotifications(List<OrderJdbcRepository.TransitionedOrder> changed,
+                                                         String newStatus) {
+        Map<Long, List<OrderJdbcRepository.TransitionedOrder>> byClient = changed.stream()
+                .filter(order -> order.clientId() != null)
+                .collect(Collectors.groupingBy(OrderJdbcRepository.TransitionedOrder::clientId,
+                        LinkedHashMap::new, Collectors.toList()));
+        if (byClient.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Client> clients;
+        try {
+            clients = clientProfileCache.getAll(byClient.keySet());
+        } catch (Exception e) {
+            // Same as a single update: the status change goes through without notifications
+            System.err.println("⚠️ Failed to look up clients for status update notifications: " + e.getMessage());
+            return List.of();
+        }
+
+        List<NotificationMessage> messages = new ArrayList<>(byClient.size());
+        byClient.forEach((clientId, orders) -> {
+            Client client = clients.get(clientId);
+            if (client == null) {
+                return;
+            }
+            String text = orders.size() == 1
+                    ? getStatusChangeMessage(newStatus, orders.get(0).id(), orders.get(0).totalPrice())
+                    : getBulkStatusChangeMessage(newStatus, orders.stream()
+                            .map(order -> "#" + order.id())
+                            .collect(Collectors.joining(", ")));
+            messages.add(new NotificationMessage(
+                    List.of(client.getEmail()),
+                    "+212660553886",
+                    "Order Status Update",
+                    text
+            ));
+        });
+        return messages;
+    }
+
+    private String getBulkStatusChangeMessage(String status, String orderIds) {
+        return switch (status) {
+            case "CONFIRMED" -> String.format("Your orders %s have been confirmed! We're preparing them for shipment.", orderIds);
+            case "SHIPPED" -> String.format("Your orders %s have been shipped! Track your delivery.", orderIds);
+            case "DELIVERED" -> String.format("Your orders %s have been delivered! Thank you for shopping with us.", orderIds);
+            case "CANCELED" -> String.format("Your orders %s have been canceled.", orderIds);
+            default -> String.format("Your orders %s have been updated to: %s", orderIds, status);
+        };
     }
 
     private String getStatusChangeMessage(String status, Long orderId, Double totalPrice) {
@@ -144,6 +551,9 @@ public class OrderService {
     }
 
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> orderRepository.findById(id).ifPresent(order -> {
+            orderRepository.delete(order);
+            orderEventPublisher.deleted(order);
+        }));
     }
 }
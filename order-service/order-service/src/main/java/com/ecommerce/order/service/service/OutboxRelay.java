@@ -0,0 +1,107 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.model.OutboxMessage;
+import com.ecommerce.order.service.repository.OutboxRepository;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox in the background. A batch is locked, published in one go
+ * and its publisher confirms awaited together; only confirmed rows are
+ * deleted, so a broker outage delays messages but never loses them. Delivery
+ * is at-least-once: consumers may see a message twice after a crash.
+ */
+// Eager even with lazy initialization on, otherwise the schedule never starts
+@Component
+@Lazy(false)
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       RabbitTemplate rabbitTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:100}")
+    public void relay() {
+        try {
+            Integer confirmed;
+            do {
+                confirmed = transactionTemplate.execute(status -> relayBatch());
+            } while (confirmed != null && confirmed == batchSize);
+        } catch (Exception e) {
+            // Nothing was deleted; the rows go out on a later run
+            System.err.println("⚠️ Outbox relay failed, will retry: " + e.getMessage());
+        }
+    }
+
+    /** Publishes one batch and returns how many messages the broker confirmed. */
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.lockBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CorrelationData> confirms = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            CorrelationData correlation = new CorrelationData(String.valueOf(message.getId()));
+            rabbitTemplate.send(message.getExchange(), message.getRoutingKey(), toAmqpMessage(message), correlation);
+            confirms.add(correlation);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        List<Long> acked = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (confirms.get(i).getFuture().get(remaining, TimeUnit.NANOSECONDS).isAck()) {
+                    acked.add(batch.get(i).getId());
+                }
+            } catch (Exception e) {
+                // Not confirmed in time: keep the row and publish it again later
+            }
+        }
+        outboxRepository.deleteAllByIdInBatch(acked);
+
+        if (acked.size() < batch.size()) {
+            System.err.println("⚠️ Broker confirmed " + acked.size() + " of " + batch.size() + " outbox messages");
+        }
+        return acked.size();
+    }
+
+    private static Message toAmqpMessage(OutboxMessage message) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        // Lets consumers drop a message they have already processed
+        properties.setMessageId("order-outbox-" + message.getId());
+        properties.setHeader("__TypeId__", message.getPayloadType());
+        return new Message(message.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.model.OutboxMessage;
+import com.ecommerce.order.service.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues RabbitMQ messages in the outbox table instead of publishing them on
+ * the request thread. Called inside a transaction, the message commits or
+ * rolls back together with the caller's changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void enqueue(String exchange, String routingKey, Object payload) {
+        try {
+            outboxRepository.save(OutboxMessage.builder()
+                    .exchange(exchange)
+                    .routingKey(routingKey)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(Instant.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox message: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Queues many messages with one batched INSERT. Identity ids keep JPA
+     * from batching, so this writes the rows through JDBC in the same transaction.
+     */
+    @Transactional
+    public void enqueueAll(String exchange, String routingKey, List<?> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        List<String> json = new ArrayList<>(payloads.size());
+        try {
+            for (Object payload : payloads) {
+                json.add(objectMapper.writeValueAsString(payload));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox message: " + e.getMessage(), e);
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        String payloadType = payloads.get(0).getClass().getName();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO outbox_messages (exchange, routing_key, payload_type, payload, created_at) VALUES (?, ?, ?, ?, ?)",
+                json, 500, (ps, payload) -> {
+                    ps.setString(1, exchange);
+                    ps.setString(2, routingKey);
+                    ps.setString(3, payloadType);
+                    ps.setString(4, payload);
+                    ps.setTimestamp(5, now);
+                });
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.dto.PaymentEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Eager even with lazy initialization on, otherwise the listener never registers
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class PaymentEventListener {
+
+    private final OrderService orderService;
+
+    // A failure is retried with backoff, then the event is parked on the dead-letter queue
+    @RabbitListener(queues = RabbitMQConfig.PAYMENT_RESULTS_QUEUE, containerFactory = "paymentEventsContainerFactory")
+    public void onPaymentEvent(PaymentEvent event) {
+        orderService.applyPaymentResult(event);
+    }
+}
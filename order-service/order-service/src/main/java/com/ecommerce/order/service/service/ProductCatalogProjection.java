@@ -0,0 +1,159 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.dto.ProductChanges;
+import com.ecommerce.order.service.dto.ProductEvent;
+import com.ecommerce.order.service.model.Product;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of product price and stock, so checkout can validate an
+ * order without calling product-service. It starts from a full export of the
+ * catalog, follows product change events, and re-reads the products changed
+ * since the last sync now and then in case an event was lost.
+ *
+ * Price and stock seen here may be behind, since events are best effort
+ * between resyncs. Checkout only uses them to skip a call to product-service:
+ * a product that looks short is fetched from product-service instead of
+ * refused, and orders are charged the price the stock hold returns. The hold
+ * stays the authority on stock and still refuses an order that cannot be served.
+ */
+// Eager even with lazy initialization on, otherwise the sync never starts
+@Service
+@Lazy(false)
+public class ProductCatalogProjection {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record ExportRow(Long id, String name, String description, Double price, Integer quantity, Instant updatedAt) {}
+
+    // A deleted product is kept as a tombstone, so a late update cannot bring it back
+    private record Entry(Product product, Instant updatedAt) {}
+
+    private final ConcurrentHashMap<Long, Entry> products = new ConcurrentHashMap<>();
+    private final ProductClient productClient;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Duration resyncOverlap;
+    private volatile Instant syncedUpTo;
+
+    public ProductCatalogProjection(ProductClient productClient,
+                                    ObjectMapper objectMapper,
+                                    @Value("${order.product-projection.enabled:true}") boolean enabled,
+                                    @Value("${order.product-projection.resync-overlap-seconds:60}") long resyncOverlapSeconds) {
+        this.productClient = productClient;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.resyncOverlap = Duration.ofSeconds(resyncOverlapSeconds);
+    }
+
+    /**
+     * The product as last seen, or null when it is unknown here (not synced
+     * yet, deleted, or the projection is disabled) and the caller should ask
+     * product-service.
+     */
+    public Product get(Long productId) {
+        if (!enabled || productId == null) {
+            return null;
+        }
+        Entry entry = products.get(productId);
+        if (entry == null || entry.product() == null) {
+            return null;
+        }
+        // Copy: callers must not change the shared instance
+        return entry.product().toBuilder().build();
+    }
+
+    public void apply(ProductChanges changes) {
+        if (changes == null || changes.events() == null) {
+            return;
+        }
+        for (ProductEvent event : changes.events()) {
+            if (event.productId() == null || event.updatedAt() == null) {
+                continue;
+            }
+            Product product = ProductEvent.DELETED.equals(event.type()) ? null : Product.builder()
+                    .id(event.productId())
+                    .name(event.name())
+                    .price(event.price() != null ? event.price() : 0)
+                    .quantity(event.quantity() != null ? event.quantity() : 0)
+                    .build();
+            put(event.productId(), product, event.updatedAt());
+        }
+    }
+
+    /**
+     * The first run loads the whole catalog; later runs only fetch products
+     * changed since the previous sync, with some overlap for clock skew.
+     * product-service adds its own overlap for late commits and says where the
+     * next sync should start (X-Export-Watermark, from its database clock).
+     */
+    @Scheduled(initialDelayString = "${order.product-projection.initial-delay-ms:5000}",
+               fixedDelayString = "${order.product-projection.resync-interval-ms:300000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        Instant started = Instant.now();
+        Instant since = syncedUpTo != null ? syncedUpTo.minus(resyncOverlap) : null;
+        try (Response response = productClient.exportProducts("ndjson", since != null ? since.toString() : null)) {
+            if (response == null || response.status() != 200 || response.body() == null) {
+                System.err.println("⚠️ Product snapshot unavailable (status "
+                        + (response != null ? response.status() : "none") + "), will retry");
+                return;
+            }
+            int rows = 0;
+            try (InputStream body = response.body().asInputStream();
+                 MappingIterator<ExportRow> it = objectMapper.readerFor(ExportRow.class).readValues(body)) {
+                while (it.hasNext()) {
+                    ExportRow row = it.next();
+                    put(row.id(), Product.builder()
+                            .id(row.id())
+                            .name(row.name())
+                            .description(row.description())
+                            .price(row.price() != null ? row.price() : 0)
+                            .quantity(row.quantity() != null ? row.quantity() : 0)
+                            .build(), row.updatedAt() != null ? row.updatedAt() : Instant.EPOCH);
+                    rows++;
+                }
+            }
+            syncedUpTo = watermark(response, started);
+            System.out.println("📦 Product projection " + (since == null ? "loaded " : "refreshed ") + rows + " products");
+        } catch (Exception e) {
+            // Checkout falls back to product-service until a sync succeeds
+            System.err.println("⚠️ Product snapshot failed, will retry: " + e.getMessage());
+        }
+    }
+
+    /** Keeps whichever state is newer, so events and snapshots may arrive in any order. */
+    private void put(Long productId, Product product, Instant updatedAt) {
+        products.merge(productId, new Entry(product, updatedAt),
+                (current, next) -> next.updatedAt().isBefore(current.updatedAt()) ? current : next);
+    }
+
+    // Falls back to our own clock for a product-service without the header
+    private static Instant watermark(Response response, Instant started) {
+        Collection<String> values = response.headers().get("X-Export-Watermark");
+        if (values == null || values.isEmpty()) {
+            return started;
+        }
+        try {
+            return Instant.parse(values.iterator().next());
+        } catch (DateTimeParseException e) {
+            return started;
+        }
+    }
+}
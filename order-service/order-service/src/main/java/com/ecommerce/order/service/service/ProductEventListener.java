@@ -0,0 +1,21 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.dto.ProductChanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Eager even with lazy initialization on, otherwise the listener never registers
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+public class ProductEventListener {
+
+    private final ProductCatalogProjection productProjection;
+
+    @RabbitListener(queues = "#{productEventsQueue.name}")
+    public void onProductChanges(ProductChanges changes) {
+        productProjection.apply(changes);
+    }
+}
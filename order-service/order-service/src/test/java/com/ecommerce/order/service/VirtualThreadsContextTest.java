@@ -0,0 +1,68 @@
+package com.ecommerce.order.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the service with the virtual-threads profile against a real Postgres
+ * and RabbitMQ, and checks that the application task executor hands out
+ * virtual threads. Needs the Java 21 build (mvn -Pvirtual-threads test) and
+ * Docker; skipped otherwise.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false"
+})
+@ActiveProfiles("virtual-threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@Testcontainers(disabledWithoutDocker = true)
+class VirtualThreadsContextTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    @ServiceConnection
+    static RabbitMQContainer rabbitmq = new RabbitMQContainer("rabbitmq:3.13-alpine");
+
+    @Autowired
+    Environment environment;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    TaskExecutor taskExecutor;
+
+    @Test
+    void contextLoadsOnVirtualThreads() throws Exception {
+        assertEquals("true", environment.getProperty("spring.threads.virtual.enabled"));
+
+        CompletableFuture<Thread> ran = new CompletableFuture<>();
+        taskExecutor.execute(() -> ran.complete(Thread.currentThread()));
+
+        assertTrue(isVirtual(ran.get(5, TimeUnit.SECONDS)), "task ran on a platform thread");
+    }
+
+    // Thread.isVirtual is Java 21 API and the default build compiles for 17
+    private static boolean isVirtual(Thread thread) throws Exception {
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}
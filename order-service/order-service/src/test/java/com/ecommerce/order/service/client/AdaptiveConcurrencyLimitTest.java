@@ -0,0 +1,71 @@
+package com.ecommerce.order.service.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 6, 0.5, 200);
+
+    @Test
+    void rejectsCallsOverTheLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+
+        assertFalse(limit.tryAcquire());
+        assertEquals(4, limit.getInFlight());
+    }
+
+    @Test
+    void growsOnlyWhileTheLimitIsInUse() {
+        assertTrue(limit.tryAcquire());
+        limit.onSuccess(FAST);
+        assertEquals(4, limit.getLimit());
+
+        acquire(4);
+        for (int i = 0; i < 4; i++) {
+            limit.onSuccess(FAST);
+        }
+        assertEquals(6, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void neverGrowsPastTheMaximum() {
+        for (int round = 0; round < 10; round++) {
+            acquire(limit.getLimit());
+            while (limit.getInFlight() > 0) {
+                limit.onSuccess(FAST);
+            }
+        }
+
+        assertEquals(6, limit.getLimit());
+    }
+
+    @Test
+    void slowCallsAndDropsBackOffDownToTheMinimum() {
+        assertTrue(limit.tryAcquire());
+        limit.onSuccess(SLOW);
+        assertEquals(2, limit.getLimit());
+
+        assertTrue(limit.tryAcquire());
+        limit.onDropped();
+        assertEquals(2, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    private void acquire(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.order.service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeadlineClientTest {
+
+    private static final Request.Options CONFIGURED = new Request.Options(5, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+
+    private final AtomicReference<Request.Options> seen = new AtomicReference<>();
+    private final Client downstream = (request, options) -> {
+        seen.set(options);
+        return Response.builder().status(200).request(request).headers(Map.of()).build();
+    };
+    private final DeadlineClient client = new DeadlineClient(downstream);
+
+    @Test
+    void keepsConfiguredTimeoutsWithoutDeadline() throws IOException {
+        client.execute(request(), CONFIGURED);
+
+        assertSame(CONFIGURED, seen.get());
+    }
+
+    @Test
+    void cutsTimeoutsToTheTimeLeft() {
+        executeWithin(TimeUnit.MILLISECONDS.toNanos(300));
+
+        assertTrue(seen.get().readTimeoutMillis() <= 300);
+        assertTrue(seen.get().connectTimeoutMillis() <= 300);
+        assertTrue(seen.get().isFollowRedirects());
+    }
+
+    @Test
+    void failsWithoutCallingOnceTheDeadlinePassed() {
+        UncheckedIOException failure = assertThrows(UncheckedIOException.class, () -> executeWithin(-1));
+
+        assertInstanceOf(SocketTimeoutException.class, failure.getCause());
+        assertNull(seen.get());
+    }
+
+    @Test
+    void nestedDeadlineKeepsTheEarlierOne() {
+        long outer = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        long remaining = CallDeadline.within(outer, () ->
+                CallDeadline.within(outer + TimeUnit.SECONDS.toNanos(10), CallDeadline::remainingMillis));
+
+        assertTrue(remaining <= 200);
+        assertEquals(Long.MAX_VALUE, CallDeadline.remainingMillis());
+    }
+
+    private void executeWithin(long nanos) {
+        CallDeadline.within(System.nanoTime() + nanos, () -> {
+            try {
+                return client.execute(request(), CONFIGURED);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.GET, "http://product-service/api/products/1", Map.of(),
+                null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ecommerce.order.service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+    private static final int PAYMENT_BULKHEAD = 4;
+
+    private final CountDownLatch paymentRelease = new CountDownLatch(1);
+    private final CountDownLatch paymentsInFlight = new CountDownLatch(PAYMENT_BULKHEAD);
+    private final AtomicInteger productCalls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    // Same shape as application.yml: a small cap for payment-service, the default for the rest
+    private final BulkheadRegistry bulkheads =
+            BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(50).maxWaitDuration(Duration.ZERO).build());
+
+    ResilientClientTest() {
+        bulkheads.bulkhead("paymentService",
+                BulkheadConfig.custom().maxConcurrentCalls(PAYMENT_BULKHEAD).maxWaitDuration(Duration.ZERO).build());
+    }
+
+    @AfterEach
+    void shutdown() {
+        paymentRelease.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void fullPaymentBulkheadLeavesProductCallsAlone() throws Exception {
+        // payment-service hangs; product-service answers at once
+        Client downstream = (request, options) -> {
+            if (request.url().startsWith("http://payment-service")) {
+                paymentsInFlight.countDown();
+                await(paymentRelease);
+            } else {
+                productCalls.incrementAndGet();
+            }
+            return ok(request);
+        };
+        ResilientClient client = client(downstream, CircuitBreakerRegistry.ofDefaults());
+
+        List<Future<Response>> stuck = new ArrayList<>();
+        for (int i = 0; i < PAYMENT_BULKHEAD; i++) {
+            stuck.add(pool.submit(() -> client.execute(request("payment-service", "/api/payments"), OPTIONS)));
+        }
+        assertTrue(paymentsInFlight.await(5, TimeUnit.SECONDS));
+
+        // One more payment is refused without waiting...
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class,
+                () -> client.execute(request("payment-service", "/api/payments"), OPTIONS));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode());
+
+        // ...while product-service calls still go through, more of them than the payment cap
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, client.execute(request("product-service", "/api/products/1"), OPTIONS).status());
+        }
+        assertEquals(20, productCalls.get());
+        assertEquals(1.0, meterRegistry.get("feign.downstream.rejected")
+                .tag("client", "payment-service").tag("reason", "bulkhead").counter().count());
+
+        paymentRelease.countDown();
+        for (Future<Response> call : stuck) {
+            assertEquals(200, call.get(5, TimeUnit.SECONDS).status());
+        }
+    }
+
+    @Test
+    void productBreakerOpensOnServerErrorsAndTimeouts() throws Exception {
+        // The productService settings from application.yml, which no longer ignore RuntimeException
+        CircuitBreakerRegistry breakers = CircuitBreakerRegistry.ofDefaults();
+        breakers.circuitBreaker("productService", CircuitBreakerConfig.custom()
+                .slidingWindowSize(20)
+                .minimumNumberOfCalls(5)
+                .failureRateThreshold(80)
+                .build());
+        AtomicInteger call = new AtomicInteger();
+        Client failing = (request, options) -> {
+            if (call.incrementAndGet() % 2 == 0) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            return Response.builder().status(503).request(request).headers(Map.of()).build();
+        };
+        ResilientClient client = client(failing, breakers);
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                client.execute(request("product-service", "/api/products/1"), OPTIONS);
+            } catch (SocketTimeoutException expected) {
+                // counted as a failure
+            }
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breakers.circuitBreaker("productService").getState());
+        assertThrows(ResponseStatusException.class, () -> client.execute(request("product-service", "/api/products/1"), OPTIONS));
+        assertEquals(5, call.get());
+    }
+
+    @Test
+    void clientErrorsDoNotTripTheBreaker() throws Exception {
+        CircuitBreakerRegistry breakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .minimumNumberOfCalls(5)
+                .build());
+        Client notFound = (request, options) -> Response.builder().status(404).request(request).headers(Map.of()).build();
+        ResilientClient client = client(notFound, breakers);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(404, client.execute(request("product-service", "/api/products/99"), OPTIONS).status());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breakers.circuitBreaker("productService").getState());
+    }
+
+    private ResilientClient client(Client downstream, CircuitBreakerRegistry breakers) {
+        return new ResilientClient(downstream, breakers, bulkheads,
+                () -> new AdaptiveConcurrencyLimit(100, 2, 200, 0.9, 1_000), meterRegistry);
+    }
+
+    private static Request request(String service, String path) {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Object.class, service, "http://" + service));
+        return Request.create(Request.HttpMethod.GET, "http://" + service + path, Map.of(),
+                Request.Body.empty(), template);
+    }
+
+    private static Response ok(Request request) {
+        return Response.builder().status(200).request(request).headers(Map.of())
+                .body("{}", StandardCharsets.UTF_8).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ecommerce.order.service.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+    private static final int CALLERS = 8;
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Counter leaders = registry.counter("leaders");
+    private final Counter followers = registry.counter("followers");
+    private final ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void identicalGetsInFlightShareOneCall() throws Exception {
+        SingleFlightClient client = client(blockingDownstream("lamp"));
+
+        List<Future<String>> bodies = concurrently(() -> body(client.execute(get("/api/products/1"), OPTIONS)));
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> body : bodies) {
+            assertEquals("lamp", body.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(1, leaders.count());
+    }
+
+    @Test
+    void failureReachesEveryWaitingCaller() throws Exception {
+        Client failing = (request, options) -> {
+            downstreamCalls.incrementAndGet();
+            await(release);
+            throw new ConnectException("refused");
+        };
+        SingleFlightClient client = client(failing);
+
+        List<Future<String>> bodies = concurrently(() -> body(client.execute(get("/api/products/1"), OPTIONS)));
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> body : bodies) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> body.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ConnectException.class, failure.getCause());
+        }
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    @Test
+    void finishedCallsAreNotReused() throws IOException {
+        release.countDown();
+        SingleFlightClient client = client(blockingDownstream("lamp"));
+
+        client.execute(get("/api/products/1"), OPTIONS);
+        client.execute(get("/api/products/1"), OPTIONS);
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals(0, followers.count());
+    }
+
+    @Test
+    void excludedPathsAndOtherMethodsGoStraightThrough() throws IOException {
+        release.countDown();
+        SingleFlightClient client = client(blockingDownstream("rows"));
+
+        client.execute(get("/api/products/export?format=ndjson"), OPTIONS);
+        client.execute(Request.create(Request.HttpMethod.POST, "http://product-service/api/products", Map.of(),
+                new byte[0], StandardCharsets.UTF_8, null), OPTIONS);
+
+        assertEquals(2, downstreamCalls.get());
+        assertEquals(0, leaders.count());
+    }
+
+    private SingleFlightClient client(Client downstream) {
+        return new SingleFlightClient(downstream, List.of("/api/products/export"), leaders, followers);
+    }
+
+    private Client blockingDownstream(String body) {
+        return (request, options) -> {
+            downstreamCalls.incrementAndGet();
+            await(release);
+            return Response.builder().status(200).request(request).headers(Map.of())
+                    .body(body, StandardCharsets.UTF_8).build();
+        };
+    }
+
+    private List<Future<String>> concurrently(Callable<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(call));
+        }
+        return results;
+    }
+
+    // Holds the leader until every other caller has joined its call
+    private void awaitFollowers(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (followers.count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(followers.count() >= expected, "followers: " + followers.count());
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static String body(Response response) throws IOException {
+        return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+    }
+
+    private static Request get(String path) {
+        return Request.create(Request.HttpMethod.GET, "http://product-service" + path, Map.of(),
+                null, StandardCharsets.UTF_8, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.order.service.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderQueryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Test
+    void cursorRoundTripsToTheLastId() {
+        OrderQuery query = OrderQuery.of("paid", 7L, null, null, 50, OrderQuery.cursorAfter(1234L), null);
+
+        assertEquals(1234L, query.beforeId());
+        assertEquals("PAID", query.status());
+        assertEquals(0, query.page());
+    }
+
+    @Test
+    void firstPageHasNoCursorAndNoFilter() {
+        OrderQuery query = OrderQuery.of(" ", null, null, null, 50, null, null);
+
+        assertNull(query.beforeId());
+        assertNull(query.status());
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, 0, null, null));
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, OrderQuery.MAX_LIMIT + 1, null, null));
+        assertBadRequest(() -> OrderQuery.of(null, null, T0, T0, 50, null, null));
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, 50, null, OrderQuery.MAX_PAGE + 1));
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, 50, OrderQuery.cursorAfter(1L), 2));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, 50, "%%%", null));
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, 50, "aWR8YWJj", null)); // "id|abc"
+        assertBadRequest(() -> OrderQuery.of(null, null, null, null, 50, "eHw1", null));     // "x|5"
+    }
+
+    private static void assertBadRequest(Runnable parse) {
+        ResponseStatusException failure = assertThrows(ResponseStatusException.class, parse::run);
+        assertEquals(HttpStatus.BAD_REQUEST, failure.getStatusCode());
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.CallDeadline;
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.model.Client;
+import com.ecommerce.order.service.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CheckoutLookupServiceTest {
+
+    private static final long TIMEOUT_MS = 300;
+
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final ProductCatalogProjection projection = mock(ProductCatalogProjection.class);
+    private final ClientProfileCache clientCache = mock(ClientProfileCache.class);
+    private final CheckoutLookupService service =
+            new CheckoutLookupService(productClient, projection, clientCache, 4, 4, TIMEOUT_MS, false);
+
+    private final Product product = Product.builder().id(1L).name("Lamp").price(10).quantity(5).build();
+    private final Client client = Client.builder().id(7L).fullName("Ada").build();
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void waitsForTheSlowerCallOnly() {
+        when(productClient.getProductById(1L)).thenAnswer(call -> sleep(150, product));
+        when(clientCache.get(7L)).thenAnswer(call -> sleep(150, client));
+
+        long started = System.nanoTime();
+        CheckoutLookupService.CheckoutContext context = service.lookup(1L, 7L);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(product, context.product());
+        assertEquals(client, context.client());
+        assertTrue(elapsedMs < 280, "calls ran one after the other: " + elapsedMs + " ms");
+    }
+
+    @Test
+    void firstFailureReturnsWithoutWaitingForTheSibling() {
+        when(productClient.getProductById(1L)).thenAnswer(call -> sleep(2_000, product));
+        when(clientCache.get(7L)).thenReturn(null);
+
+        long started = System.nanoTime();
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> service.lookup(1L, 7L));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals("Client profile not found. Please log in again.", failure.getMessage());
+        assertTrue(elapsedMs < TIMEOUT_MS, "waited for the slow sibling: " + elapsedMs + " ms");
+    }
+
+    @Test
+    void slowCallTimesOutAndSeesTheSameDeadline() throws InterruptedException {
+        AtomicLong remainingInCall = new AtomicLong();
+        CountDownLatch called = new CountDownLatch(1);
+        when(productClient.getProductById(1L)).thenAnswer(call -> {
+            remainingInCall.set(CallDeadline.remainingMillis());
+            called.countDown();
+            return sleep(2_000, product);
+        });
+        when(clientCache.get(7L)).thenReturn(client);
+
+        long started = System.nanoTime();
+        RuntimeException failure = assertThrows(RuntimeException.class, () -> service.lookup(1L, 7L));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertTrue(failure.getMessage().contains("did not answer in time"), failure.getMessage());
+        assertTrue(elapsedMs < TIMEOUT_MS + 200, "overran the deadline: " + elapsedMs + " ms");
+        assertTrue(called.await(1, TimeUnit.SECONDS));
+        // Feign cuts its timeouts to this, so the call cannot hold its thread past the caller's wait
+        assertTrue(remainingInCall.get() <= TIMEOUT_MS, "deadline not passed on: " + remainingInCall.get());
+    }
+
+    @Test
+    void projectedProductSkipsProductService() {
+        when(projection.get(1L)).thenReturn(product);
+        when(clientCache.get(7L)).thenReturn(client);
+
+        assertEquals(product, service.lookup(1L, 7L).product());
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void projectionShortOnStockAsksProductService() {
+        // The projection may be behind a restock, so it must not refuse the order itself
+        when(projection.get(1L)).thenReturn(product.toBuilder().quantity(1).build());
+        when(productClient.getProductById(1L)).thenReturn(product);
+        when(clientCache.get(7L)).thenReturn(client);
+
+        assertEquals(product, service.lookup(1L, 3, 7L).product());
+    }
+
+    @Test
+    void cartFetchesOnlyTheProductsTheProjectionCannotCover() {
+        Product desk = Product.builder().id(2L).name("Desk").price(80).quantity(0).build();
+        Product restockedDesk = desk.toBuilder().quantity(4).build();
+        when(projection.get(1L)).thenReturn(product);
+        when(projection.get(2L)).thenReturn(desk);
+        when(productClient.getProductsByIds(List.of(2L))).thenReturn(List.of(restockedDesk));
+        when(clientCache.get(7L)).thenReturn(client);
+
+        Map<Long, Product> products = service.lookupCart(Map.of(1L, 2, 2L, 1), 7L).products();
+
+        assertEquals(product, products.get(1L));
+        assertEquals(restockedDesk, products.get(2L));
+    }
+
+    private static <T> T sleep(long millis, T result) throws InterruptedException {
+        Thread.sleep(millis);
+        return result;
+    }
+}
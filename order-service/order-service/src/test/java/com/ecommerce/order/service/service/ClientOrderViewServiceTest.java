@@ -0,0 +1,101 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.dto.OrderEvent;
+import com.ecommerce.order.service.dto.OrderSummary;
+import com.ecommerce.order.service.model.ClientOrderView;
+import com.ecommerce.order.service.repository.ClientOrderViewRepository;
+import com.ecommerce.order.service.repository.ProcessedOrderEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientOrderViewServiceTest {
+
+    private static final long CLIENT = 7L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final ClientOrderViewRepository viewRepository = mock(ClientOrderViewRepository.class);
+    private final ProcessedOrderEventRepository processedRepository = mock(ProcessedOrderEventRepository.class);
+    private final ClientOrderViewService service = new ClientOrderViewService(viewRepository, processedRepository, 3, 7);
+
+    // Stands in for the client's row
+    private final ClientOrderView view = ClientOrderView.builder().clientId(CLIENT).build();
+    private final Set<String> processed = new HashSet<>();
+
+    @BeforeEach
+    void stubRepositories() {
+        when(processedRepository.markProcessed(anyString(), any())).thenAnswer(call -> processed.add(call.getArgument(0)) ? 1 : 0);
+        when(viewRepository.lockById(anyLong())).thenReturn(Optional.of(view));
+    }
+
+    @Test
+    void eventsArrivingOutOfOrderEndUpRight() {
+        service.apply("e2", statusChanged(1L, "PENDING", "PAID", T0.plusSeconds(5)));
+        assertEquals(Map.of("PENDING", -1L, "PAID", 1L), view.getStatusCounts());
+
+        service.apply("e1", created(1L, "PENDING", T0));
+
+        assertEquals(1, view.getOrderCount());
+        assertEquals(Map.of("PAID", 1L), view.getStatusCounts());
+        assertEquals(50.0, view.getLifetimeSpend());
+        // The late CREATED must not put the order back to PENDING in the list
+        assertEquals("PAID", view.getRecentOrders().get(0).status());
+    }
+
+    @Test
+    void redeliveredEventIsCountedOnce() {
+        OrderEvent event = created(1L, "PAID", T0);
+
+        service.apply("e1", event);
+        service.apply("e1", event);
+
+        assertEquals(1, view.getOrderCount());
+        assertEquals(Map.of("PAID", 1L), view.getStatusCounts());
+        assertEquals(50.0, view.getLifetimeSpend());
+    }
+
+    @Test
+    void deletedOrderLeavesCountsAndList() {
+        service.apply("e1", created(1L, "PAID", T0));
+        service.apply("e2", new OrderEvent(OrderEvent.DELETED, 1L, CLIENT, 3L, 1, 50.0, null, "PAID", T0, T0.plusSeconds(1)));
+
+        assertEquals(0, view.getOrderCount());
+        assertTrue(view.getStatusCounts().isEmpty());
+        assertEquals(0.0, view.getLifetimeSpend());
+        assertTrue(view.getRecentOrders().isEmpty());
+    }
+
+    @Test
+    void recentListKeepsTheNewestOrders() {
+        for (long id = 1; id <= 5; id++) {
+            service.apply("e" + id, created(id, "PENDING", T0.plusSeconds(id)));
+        }
+        service.apply("s1", statusChanged(1L, "PENDING", "CANCELED", T0.plusSeconds(10)));
+
+        assertEquals(List.of(5L, 4L, 3L), view.getRecentOrders().stream().map(OrderSummary::id).toList());
+        assertEquals(5, view.getOrderCount());
+        assertEquals(Map.of("PENDING", 4L, "CANCELED", 1L), view.getStatusCounts());
+    }
+
+    private static OrderEvent created(Long orderId, String status, LocalDateTime at) {
+        return new OrderEvent(OrderEvent.CREATED, orderId, CLIENT, 3L, 1, 50.0, null, status, T0, at);
+    }
+
+    private static OrderEvent statusChanged(Long orderId, String from, String to, LocalDateTime at) {
+        return new OrderEvent(OrderEvent.STATUS_CHANGED, orderId, CLIENT, 3L, 1, 50.0, from, to, T0, at);
+    }
+}
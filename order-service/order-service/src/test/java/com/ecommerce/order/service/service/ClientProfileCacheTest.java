@@ -0,0 +1,111 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.ClientClient;
+import com.ecommerce.order.service.dto.ClientEvent;
+import com.ecommerce.order.service.model.Client;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientProfileCacheTest {
+
+    private final ClientClient clientClient = mock(ClientClient.class);
+    private final ClientProfileCache cache = new ClientProfileCache(clientClient, 1_000, 600, 300, 30);
+
+    @Test
+    void unknownClientIsCachedAsMissing() {
+        when(clientClient.getClientById(7L)).thenThrow(OrderSagaServiceTest.feignError(404));
+
+        assertNull(cache.get(7L));
+        assertNull(cache.get(7L));
+
+        verify(clientClient, times(1)).getClientById(7L);
+    }
+
+    @Test
+    void otherFailuresAreNotCached() {
+        when(clientClient.getClientById(7L))
+                .thenThrow(OrderSagaServiceTest.feignError(503))
+                .thenReturn(client(7L));
+
+        assertThrows(RuntimeException.class, () -> cache.get(7L));
+        assertEquals(client(7L), cache.get(7L));
+
+        verify(clientClient, times(2)).getClientById(7L);
+    }
+
+    @Test
+    void knownClientIsLoadedOnce() {
+        when(clientClient.getClientById(7L)).thenReturn(client(7L));
+
+        assertEquals(client(7L), cache.get(7L));
+        assertEquals(client(7L), cache.get(7L));
+
+        verify(clientClient, times(1)).getClientById(7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkLookupLoadsMissingIdsInBatchesOf200() {
+        List<List<Long>> batches = new ArrayList<>();
+        when(clientClient.getClientsByIds(anyList())).thenAnswer(call -> {
+            List<Long> ids = new ArrayList<>((List<Long>) call.getArgument(0));
+            batches.add(ids);
+            // Id 450 is unknown to client-service
+            return ids.stream().filter(id -> id != 450L).map(ClientProfileCacheTest::client).toList();
+        });
+
+        Map<Long, Client> found = cache.getAll(LongStream.rangeClosed(1, 450).boxed().toList());
+
+        assertEquals(List.of(200, 200, 50), batches.stream().map(List::size).toList());
+        assertEquals(449, found.size());
+        assertFalse(found.containsKey(450L));
+
+        // Everything is cached now, including the unknown id
+        cache.getAll(LongStream.rangeClosed(1, 450).boxed().toList());
+        assertEquals(3, batches.size());
+    }
+
+    @Test
+    void clientEventEvictsTheProfile() {
+        when(clientClient.getClientById(7L))
+                .thenReturn(client(7L))
+                .thenReturn(Client.builder().id(7L).email("new@example.com").build());
+        ClientEventListener listener = new ClientEventListener(cache);
+        cache.get(7L);
+
+        listener.onClientEvent(new ClientEvent("UPDATED", 7L));
+
+        assertEquals("new@example.com", cache.get(7L).getEmail());
+        verify(clientClient, times(2)).getClientById(7L);
+    }
+
+    @Test
+    void clientEventEvictsACachedMiss() {
+        when(clientClient.getClientById(7L))
+                .thenThrow(OrderSagaServiceTest.feignError(404))
+                .thenReturn(client(7L));
+        cache.get(7L);
+
+        new ClientEventListener(cache).onClientEvent(new ClientEvent("UPDATED", 7L));
+
+        assertEquals(client(7L), cache.get(7L));
+    }
+
+    private static Client client(Long id) {
+        return Client.builder().id(id).email("client" + id + "@example.com").build();
+    }
+}
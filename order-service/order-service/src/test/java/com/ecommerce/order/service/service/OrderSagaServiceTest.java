@@ -0,0 +1,274 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.PaymentClient;
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.config.RabbitMQConfig;
+import com.ecommerce.order.service.dto.HeldStock;
+import com.ecommerce.order.service.dto.PaymentRequest;
+import com.ecommerce.order.service.dto.PaymentResult;
+import com.ecommerce.order.service.dto.SagaCommand;
+import com.ecommerce.order.service.dto.StockLine;
+import com.ecommerce.order.service.model.Client;
+import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.model.Product;
+import com.ecommerce.order.service.repository.OrderRepository;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderSagaServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final CheckoutLookupService checkoutLookupService = mock(CheckoutLookupService.class);
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final PaymentClient paymentClient = mock(PaymentClient.class);
+    private final NotificationProducer notificationProducer = mock(NotificationProducer.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+    private final OrderEventPublisher orderEventPublisher = mock(OrderEventPublisher.class);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    private final OrderSagaService saga = new OrderSagaService(orderRepository, checkoutLookupService, productClient,
+            paymentClient, notificationProducer, outboxService, orderEventPublisher, transactionTemplate, MAX_ATTEMPTS);
+
+    private final Product product = Product.builder().id(3L).name("Lamp").price(10).quantity(5).build();
+    private final Client client = Client.builder().id(7L).email("ada@example.com").build();
+
+    @Test
+    void startCheckoutStoresAPendingOrderAndQueuesReserve() {
+        when(orderRepository.save(any())).thenAnswer(call -> {
+            Order saved = call.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+
+        Order order = saga.startCheckout(3L, 2, 7L);
+
+        assertEquals("PENDING", order.getStatus());
+        verify(orderEventPublisher).created(order);
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.RESERVE, 1));
+        verifyNoInteractions(productClient, paymentClient);
+    }
+
+    @Test
+    void reserveHoldsTheStockAtTheHeldPriceAndQueuesPay() {
+        Order order = stored(OrderServiceTest.order(42L, "PENDING"));
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product, client));
+        when(productClient.holdStock(eq("order-42"), any())).thenReturn(List.of(new HeldStock(3L, 2, 12.0)));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.RESERVE, 1));
+
+        assertEquals(OrderSagaService.STOCK_RESERVED, order.getStatus());
+        assertEquals(24.0, order.getTotalPrice());
+        verify(productClient).holdStock("order-42", List.of(new StockLine(3L, 2)));
+        verify(orderEventPublisher).statusChanged(order, "PENDING");
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.PAY, 1));
+    }
+
+    @Test
+    void reserveWithoutEnoughStockCancels() {
+        Order order = stored(OrderServiceTest.order(42L, "PENDING"));
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(
+                product.toBuilder().quantity(1).build(), client));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.RESERVE, 1));
+
+        assertEquals("CANCELED", order.getStatus());
+        verify(productClient, never()).holdStock(anyString(), any());
+        verify(outboxService, never()).enqueue(anyString(), anyString(), any());
+    }
+
+    @Test
+    void transientReserveFailureIsRetriedThroughTheDelayQueue() {
+        Order order = stored(OrderServiceTest.order(42L, "PENDING"));
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product, client));
+        when(productClient.holdStock(anyString(), any())).thenThrow(feignError(503));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.RESERVE, 1));
+
+        assertEquals("PENDING", order.getStatus());
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_RETRY_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.RESERVE, 2));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void refusedHoldCancelsWithoutRetrying() {
+        Order order = stored(OrderServiceTest.order(42L, "PENDING"));
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product, client));
+        when(productClient.holdStock(anyString(), any())).thenThrow(feignError(409));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.RESERVE, 1));
+
+        assertEquals("CANCELED", order.getStatus());
+        verify(productClient).releaseHold("order-42");
+        verify(outboxService, never()).enqueue(anyString(), anyString(), any());
+    }
+
+    @Test
+    void payChargesTheOrderAndQueuesConfirm() {
+        Order order = stored(OrderServiceTest.order(42L, OrderSagaService.STOCK_RESERVED));
+        when(paymentClient.processPayment(eq("order-42"), any())).thenReturn(new PaymentResult(900L, 42L, "PAID"));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.PAY, 1));
+
+        assertEquals("PAID", order.getStatus());
+        verify(paymentClient).processPayment("order-42", new PaymentRequest(42L, 20.0, "CREDIT_CARD"));
+        verify(paymentClient, never()).getPaymentsByOrder(anyLong());
+        verify(orderEventPublisher).statusChanged(order, OrderSagaService.STOCK_RESERVED);
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.CONFIRM, 1));
+    }
+
+    @Test
+    void payRetryFindsTheEarlierPaymentInsteadOfChargingAgain() {
+        Order order = stored(OrderServiceTest.order(42L, OrderSagaService.STOCK_RESERVED));
+        // The first attempt charged but its answer was lost
+        when(paymentClient.getPaymentsByOrder(42L)).thenReturn(List.of(
+                new PaymentResult(899L, 42L, "FAILED"), new PaymentResult(900L, 42L, "PAID")));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.PAY, 2));
+
+        assertEquals("PAID", order.getStatus());
+        verify(paymentClient, never()).processPayment(anyString(), any());
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.CONFIRM, 1));
+    }
+
+    @Test
+    void payRetryWithoutAnEarlierPaymentCharges() {
+        stored(OrderServiceTest.order(42L, OrderSagaService.STOCK_RESERVED));
+        when(paymentClient.getPaymentsByOrder(42L)).thenReturn(List.of());
+        when(paymentClient.processPayment(eq("order-42"), any())).thenReturn(new PaymentResult(900L, 42L, "PAID"));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.PAY, 2));
+
+        verify(paymentClient).processPayment(eq("order-42"), any());
+    }
+
+    @Test
+    void payGivesUpAfterMaxAttemptsAndReleasesTheHold() {
+        Order order = stored(OrderServiceTest.order(42L, OrderSagaService.STOCK_RESERVED));
+        when(paymentClient.processPayment(anyString(), any())).thenThrow(feignError(503));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.PAY, MAX_ATTEMPTS));
+
+        assertEquals("PAYMENT_FAILED", order.getStatus());
+        verify(productClient).releaseHold("order-42");
+        verify(orderEventPublisher).statusChanged(order, OrderSagaService.STOCK_RESERVED);
+        verify(outboxService, never()).enqueue(anyString(), anyString(), any());
+    }
+
+    @Test
+    void declinedPaymentCompensatesAtOnce() {
+        Order order = stored(OrderServiceTest.order(42L, OrderSagaService.STOCK_RESERVED));
+        when(paymentClient.processPayment(anyString(), any())).thenReturn(new PaymentResult(900L, 42L, "FAILED"));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.PAY, 1));
+
+        assertEquals("PAYMENT_FAILED", order.getStatus());
+        verify(productClient).releaseHold("order-42");
+    }
+
+    @Test
+    void redeliveredStepIsANoOp() {
+        Order order = stored(OrderServiceTest.order(42L, "PAID"));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.PAY, 1));
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.RESERVE, 1));
+
+        assertEquals("PAID", order.getStatus());
+        verifyNoInteractions(paymentClient, outboxService, checkoutLookupService);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmTurnsTheHoldIntoASaleAndNotifies() {
+        Order order = stored(OrderServiceTest.order(42L, "PAID"));
+        when(checkoutLookupService.lookup(3L, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product, client));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.CONFIRM, 1));
+
+        verify(productClient).confirmHold("order-42");
+        verify(notificationProducer).sendOrderPaid(client, product, order.getQuantity(), order.getTotalPrice());
+    }
+
+    @Test
+    void backupConfirmationDoesNotNotify() {
+        stored(OrderServiceTest.order(42L, "PAID"));
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.CONFIRM_HOLD, 1));
+
+        verify(productClient).confirmHold("order-42");
+        verify(notificationProducer, never()).sendOrderPaid(any(), any(), anyInt(), anyDouble());
+    }
+
+    @Test
+    void confirmOfAPaidOrderKeepsRetryingPastMaxAttempts() {
+        stored(OrderServiceTest.order(42L, "PAID"));
+        doThrow(new RuntimeException("product-service down")).when(productClient).confirmHold("order-42");
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.CONFIRM_HOLD, MAX_ATTEMPTS + 5));
+
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_RETRY_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.CONFIRM_HOLD, MAX_ATTEMPTS + 6));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void refusedConfirmFlagsThePaidOrderForReview() {
+        Order order = stored(OrderServiceTest.order(42L, "PAID"));
+        doThrow(feignError(409)).when(productClient).confirmHold("order-42");
+        when(orderRepository.transitionStatus(eq(42L), eq("PAID"), eq(OrderService.NEEDS_REVIEW), any())).thenReturn(1);
+
+        saga.handle(new SagaCommand(42L, SagaCommand.Step.CONFIRM, 1));
+
+        assertEquals(OrderService.NEEDS_REVIEW, order.getStatus());
+        verify(orderEventPublisher).statusChanged(order, "PAID");
+        verify(outboxService, never()).enqueue(anyString(), anyString(), any());
+    }
+
+    @Test
+    void confirmHoldLaterGoesThroughTheDelayQueue() {
+        saga.confirmHoldLater(42L);
+
+        verify(outboxService).enqueue(RabbitMQConfig.SAGA_EXCHANGE, RabbitMQConfig.SAGA_RETRY_QUEUE,
+                new SagaCommand(42L, SagaCommand.Step.CONFIRM_HOLD, 1));
+    }
+
+    private Order stored(Order order) {
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        return order;
+    }
+
+    static FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.POST, "http://product-service/api/products/holds/order-42/confirm",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return FeignException.errorStatus("ProductClient#confirmHold", feign.Response.builder()
+                .status(status).reason("refused").request(request).headers(Map.of()).build());
+    }
+}
@@ -0,0 +1,315 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.PaymentClient;
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.dto.BulkStatusRequest;
+import com.ecommerce.order.service.dto.BulkStatusResult;
+import com.ecommerce.order.service.dto.HeldStock;
+import com.ecommerce.order.service.dto.PaymentEvent;
+import com.ecommerce.order.service.dto.PaymentRequest;
+import com.ecommerce.order.service.dto.PaymentResult;
+import com.ecommerce.order.service.model.Client;
+import com.ecommerce.order.service.model.NotificationMessage;
+import com.ecommerce.order.service.model.Order;
+import com.ecommerce.order.service.model.OrderLine;
+import com.ecommerce.order.service.model.Product;
+import com.ecommerce.order.service.repository.OrderJdbcRepository;
+import com.ecommerce.order.service.repository.OrderQueryRepository;
+import com.ecommerce.order.service.repository.OrderRepository;
+import feign.RetryableException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderJdbcRepository orderJdbcRepository = mock(OrderJdbcRepository.class);
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final ClientProfileCache clientProfileCache = mock(ClientProfileCache.class);
+    private final PaymentClient paymentClient = mock(PaymentClient.class);
+    private final CheckoutLookupService checkoutLookupService = mock(CheckoutLookupService.class);
+    private final NotificationProducer notificationProducer = mock(NotificationProducer.class);
+    private final OrderEventPublisher orderEventPublisher = mock(OrderEventPublisher.class);
+    private final OrderSagaService orderSagaService = mock(OrderSagaService.class);
+    // Runs callbacks directly; commit and rollback go to the mocked manager
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+    private final OrderService service = new OrderService(orderRepository, mock(OrderQueryRepository.class),
+            orderJdbcRepository, productClient, clientProfileCache, paymentClient, checkoutLookupService,
+            notificationProducer, orderEventPublisher, orderSagaService, transactionTemplate, 3);
+
+    @Test
+    void paidEventForAFailedOrderFlagsItForReview() {
+        Order order = order(42L, "PAYMENT_FAILED");
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order));
+        when(orderRepository.transitionStatus(eq(42L), eq("PAYMENT_FAILED"), eq(OrderService.NEEDS_REVIEW), any())).thenReturn(1);
+
+        service.applyPaymentResult(paid(42L));
+
+        assertEquals(OrderService.NEEDS_REVIEW, order.getStatus());
+        verify(orderEventPublisher).statusChanged(order, "PAYMENT_FAILED");
+        verify(notificationProducer, never()).sendNotification(any());
+    }
+
+    @Test
+    void paidEventForACanceledOrderFlagsItForReview() {
+        Order order = order(42L, "CANCELED");
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order));
+        when(orderRepository.transitionStatus(eq(42L), eq("CANCELED"), eq(OrderService.NEEDS_REVIEW), any())).thenReturn(1);
+
+        service.applyPaymentResult(paid(42L));
+
+        verify(orderEventPublisher).statusChanged(order, "CANCELED");
+    }
+
+    @Test
+    void redeliveredPaidEventForAFlaggedOrderIsANoOp() {
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order(42L, OrderService.NEEDS_REVIEW)));
+
+        service.applyPaymentResult(paid(42L));
+
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void paidEventWaitsWhileTheSagaIsStillPaying() {
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order(42L, OrderSagaService.STOCK_RESERVED)));
+
+        // Thrown so the listener retries the event once the saga has paid or compensated
+        assertThrows(IllegalStateException.class, () -> service.applyPaymentResult(paid(42L)));
+        verify(orderRepository, never()).transitionStatus(anyLong(), anyString(), anyString(), any());
+    }
+
+    @Test
+    void paidEventMovesAPendingOrderToPaid() {
+        Order order = order(42L, "PENDING");
+        when(orderRepository.findById(42L)).thenReturn(Optional.of(order));
+        when(orderRepository.transitionStatus(eq(42L), eq("PENDING"), eq("PAID"), any())).thenReturn(1);
+        when(clientProfileCache.get(7L)).thenReturn(Client.builder().id(7L).email("ada@example.com").build());
+
+        service.applyPaymentResult(paid(42L));
+
+        assertEquals("PAID", order.getStatus());
+        verify(orderEventPublisher).statusChanged(order, "PENDING");
+        verify(notificationProducer).sendNotification(any());
+        verify(orderSagaService).confirmHoldLater(42L);
+    }
+
+    @Test
+    void paidCheckoutQueuesABackupConfirmationEvenWhenConfirmingFails() {
+        Product product = Product.builder().id(3L).name("Lamp").price(10).quantity(5).build();
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product,
+                Client.builder().id(7L).email("ada@example.com").build()));
+        when(orderRepository.save(any())).thenAnswer(call -> {
+            Order saved = call.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+        when(paymentClient.processPayment(anyString(), any())).thenReturn(new PaymentResult(900L, 42L, "PAID"));
+        when(orderRepository.transitionStatus(eq(42L), eq("PENDING"), eq("PAID"), any())).thenReturn(1);
+        doThrow(new RuntimeException("product-service down")).when(productClient).confirmHold("order-42");
+
+        Order order = service.createOrder(3L, 2, 7L);
+
+        assertEquals("PAID", order.getStatus());
+        verify(orderSagaService).confirmHoldLater(42L);
+        verify(productClient, never()).releaseHold(anyString());
+    }
+
+    @Test
+    void timedOutPaymentThatTheEventMarkedPaidKeepsTheSale() {
+        Product product = Product.builder().id(3L).name("Lamp").price(10).quantity(5).build();
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product,
+                Client.builder().id(7L).email("ada@example.com").build()));
+        when(orderRepository.save(any())).thenAnswer(call -> {
+            Order saved = call.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+        when(paymentClient.processPayment(anyString(), any())).thenThrow(mock(RetryableException.class));
+        // The payment result event moved the order out of PENDING while the call was timing out
+        when(orderRepository.transitionStatus(eq(42L), eq("PENDING"), anyString(), any())).thenReturn(0);
+
+        Order order = service.createOrder(3L, 2, 7L);
+
+        assertEquals(42L, order.getId());
+        verify(productClient, never()).releaseHold(anyString());
+        verify(productClient).confirmHold("order-42");
+        verify(notificationProducer).sendOrderPaid(any(), eq(product), anyInt(), any(Double.class));
+    }
+
+    @Test
+    void declinedPaymentReleasesTheHold() {
+        Product product = Product.builder().id(3L).name("Lamp").price(10).quantity(5).build();
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product,
+                Client.builder().id(7L).build()));
+        when(orderRepository.save(any())).thenAnswer(call -> {
+            Order saved = call.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+        when(paymentClient.processPayment(anyString(), any())).thenThrow(new RuntimeException("declined"));
+        when(orderRepository.transitionStatus(eq(42L), eq("PENDING"), eq("PAYMENT_FAILED"), any())).thenReturn(1);
+
+        assertThrows(RuntimeException.class, () -> service.createOrder(3L, 2, 7L));
+
+        verify(productClient).releaseHold("order-42");
+        verify(productClient, never()).confirmHold(anyString());
+        verify(productClient).holdStock(eq("order-42"), anyList());
+    }
+
+    @Test
+    void chargesThePriceTheStockWasHeldAt() {
+        // The projection still has the old price of 10
+        Product product = Product.builder().id(3L).name("Lamp").price(10).quantity(5).build();
+        when(checkoutLookupService.lookup(3L, 2, 7L)).thenReturn(new CheckoutLookupService.CheckoutContext(product,
+                Client.builder().id(7L).email("ada@example.com").build()));
+        when(orderRepository.save(any())).thenAnswer(call -> {
+            Order saved = call.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+        when(productClient.holdStock(eq("order-42"), anyList())).thenReturn(List.of(new HeldStock(3L, 2, 12.5)));
+        when(paymentClient.processPayment(anyString(), any())).thenReturn(new PaymentResult(900L, 42L, "PAID"));
+        when(orderRepository.transitionStatus(eq(42L), eq("PENDING"), eq("PAID"), any())).thenReturn(1);
+
+        Order order = service.createOrder(3L, 2, 7L);
+
+        assertEquals(25.0, order.getTotalPrice());
+        verify(paymentClient).processPayment("order-42", new PaymentRequest(42L, 25.0, "CREDIT_CARD"));
+    }
+
+    @Test
+    void heldPricesRepriceEachCartLine() {
+        Order cart = Order.builder().id(42L).clientId(7L).totalPrice(30.0).lines(new ArrayList<>(List.of(
+                OrderLine.builder().productId(3L).quantity(2).unitPrice(10.0).build(),
+                OrderLine.builder().productId(4L).quantity(1).unitPrice(10.0).build()))).build();
+
+        // Product 4 came back without a price (an older product-service): it keeps the checkout price
+        boolean changed = OrderPricing.reprice(cart, List.of(new HeldStock(3L, 2, 12.0), new HeldStock(4L, 1, null)));
+
+        assertTrue(changed);
+        assertEquals(12.0, cart.getLines().get(0).getUnitPrice());
+        assertEquals(10.0, cart.getLines().get(1).getUnitPrice());
+        assertEquals(34.0, cart.getTotalPrice());
+    }
+
+    @Test
+    void unchangedPriceLeavesTheOrderAlone() {
+        Order order = order(42L, "PENDING");
+
+        assertFalse(OrderPricing.reprice(order, List.of(new HeldStock(3L, 2, 10.0))));
+        assertEquals(20.0, order.getTotalPrice());
+    }
+
+    @Test
+    void bulkUpdateOnlyMovesBetweenBulkStatuses() {
+        // Saga and review statuses are owned by the checkout, not by bulk updates
+        for (String[] pair : new String[][]{{"PAID", "NEEDS_REVIEW"}, {OrderSagaService.STOCK_RESERVED, "CANCELED"},
+                {"PAYMENT_FAILED", "PENDING"}, {null, "SHIPPED"}, {"PAID", "PAID"}}) {
+            ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                    () -> service.bulkUpdateStatus(new BulkStatusRequest(pair[0], pair[1], null, null, null)));
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        }
+        verifyNoInteractions(orderJdbcRepository);
+    }
+
+    @Test
+    void bulkUpdateAcceptsLowerCaseStatuses() {
+        when(orderJdbcRepository.transitionStatus("PAID", "SHIPPED", null, null, null, 3)).thenReturn(List.of());
+
+        assertEquals(0, service.bulkUpdateStatus(new BulkStatusRequest("paid", "shipped", null, null, null)).updated());
+    }
+
+    @Test
+    void bulkUpdateCapsTheIdsAndTheRowsMoved() {
+        assertThrows(ResponseStatusException.class,
+                () -> service.bulkUpdateStatus(new BulkStatusRequest("PAID", "SHIPPED", List.of(1L, 2L, 3L, 4L), null, null)));
+        assertThrows(ResponseStatusException.class,
+                () -> service.bulkUpdateStatus(new BulkStatusRequest("PAID", "SHIPPED", List.of(), null, null)));
+
+        // The repository is asked for at most max-rows; a full batch means there may be more
+        when(orderJdbcRepository.transitionStatus("PAID", "SHIPPED", null, null, null, 3))
+                .thenReturn(List.of(moved(1L, null), moved(2L, null), moved(3L, null)));
+        BulkStatusResult result = service.bulkUpdateStatus(new BulkStatusRequest("PAID", "SHIPPED", null, null, null));
+
+        assertEquals(3, result.updated());
+        assertTrue(result.hasMore());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkNotificationsAreQueuedOncePerClientAfterTheStatusCommits() {
+        List<OrderJdbcRepository.TransitionedOrder> changed = List.of(moved(1L, 7L), moved(2L, 7L), moved(3L, 8L));
+        when(orderJdbcRepository.transitionStatus("PAID", "SHIPPED", null, null, null, 3)).thenReturn(changed);
+        when(clientProfileCache.getAll(any())).thenReturn(Map.of(
+                7L, Client.builder().id(7L).email("ada@example.com").build(),
+                8L, Client.builder().id(8L).email("alan@example.com").build()));
+
+        BulkStatusResult result = service.bulkUpdateStatus(new BulkStatusRequest("PAID", "SHIPPED", null, null, null));
+
+        assertEquals(2, result.notificationsQueued());
+        InOrder order = inOrder(orderJdbcRepository, orderEventPublisher, transactionManager, notificationProducer);
+        order.verify(orderJdbcRepository).transitionStatus("PAID", "SHIPPED", null, null, null, 3);
+        order.verify(orderEventPublisher).statusChanged(changed, "PAID", "SHIPPED");
+        order.verify(transactionManager).commit(any());
+        ArgumentCaptor<List<NotificationMessage>> sent = ArgumentCaptor.forClass(List.class);
+        order.verify(notificationProducer).sendNotifications(sent.capture());
+        assertEquals(2, sent.getValue().size());
+        assertTrue(sent.getValue().get(0).getMessage().contains("#1, #2"), sent.getValue().get(0).getMessage());
+    }
+
+    @Test
+    void failedBulkUpdateQueuesNoNotifications() {
+        when(orderJdbcRepository.transitionStatus(anyString(), anyString(), any(), any(), any(), anyInt()))
+                .thenThrow(new RuntimeException("deadlock detected"));
+
+        assertThrows(RuntimeException.class,
+                () -> service.bulkUpdateStatus(new BulkStatusRequest("PAID", "SHIPPED", null, null, null)));
+
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(notificationProducer, clientProfileCache);
+    }
+
+    private static OrderJdbcRepository.TransitionedOrder moved(Long id, Long clientId) {
+        return new OrderJdbcRepository.TransitionedOrder(id, clientId, 3L, 1, 10.0, null);
+    }
+
+    static Order order(Long id, String status) {
+        return Order.builder().id(id).clientId(7L).productId(3L).quantity(2).totalPrice(20.0).status(status).build();
+    }
+
+    private static PaymentEvent paid(Long orderId) {
+        return new PaymentEvent(900L, orderId, "PAID", 20.0, "CREDIT_CARD", Instant.now());
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.order.service.service;
+
+import com.ecommerce.order.service.client.ProductClient;
+import com.ecommerce.order.service.dto.ProductChanges;
+import com.ecommerce.order.service.dto.ProductEvent;
+import com.ecommerce.order.service.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductCatalogProjectionTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T12:00:00Z");
+
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final ProductCatalogProjection projection =
+            new ProductCatalogProjection(productClient, new ObjectMapper().registerModule(new JavaTimeModule()), true, 60);
+
+    @Test
+    void newerEventReplacesTheProduct() {
+        projection.apply(changes(updated(1L, 10.0, 5, T0)));
+        projection.apply(changes(updated(1L, 12.0, 3, T0.plusSeconds(1))));
+
+        Product product = projection.get(1L);
+        assertEquals(12.0, product.getPrice());
+        assertEquals(3, product.getQuantity());
+    }
+
+    @Test
+    void olderEventArrivingLateIsIgnored() {
+        projection.apply(changes(updated(1L, 12.0, 3, T0.plusSeconds(1))));
+        projection.apply(changes(updated(1L, 10.0, 5, T0)));
+
+        assertEquals(12.0, projection.get(1L).getPrice());
+    }
+
+    @Test
+    void latestEventInOneBatchWinsWhateverItsPosition() {
+        projection.apply(changes(updated(1L, 12.0, 3, T0.plusSeconds(2)), updated(1L, 11.0, 4, T0.plusSeconds(1))));
+
+        assertEquals(12.0, projection.get(1L).getPrice());
+    }
+
+    @Test
+    void deletedProductIsNotBroughtBackByAnOlderUpdate() {
+        projection.apply(changes(updated(1L, 10.0, 5, T0)));
+        projection.apply(changes(deleted(1L, T0.plusSeconds(2))));
+        projection.apply(changes(updated(1L, 11.0, 5, T0.plusSeconds(1))));
+
+        assertNull(projection.get(1L));
+    }
+
+    @Test
+    void tombstoneArrivingBeforeTheUpdateStillWins() {
+        projection.apply(changes(deleted(1L, T0.plusSeconds(2))));
+        projection.apply(changes(updated(1L, 10.0, 5, T0)));
+
+        assertNull(projection.get(1L));
+    }
+
+    @Test
+    void staleSnapshotRowDoesNotOverwriteANewerEvent() {
+        projection.apply(changes(updated(1L, 12.0, 3, T0.plusSeconds(5))));
+        snapshot("{\"id\":1,\"name\":\"Lamp\",\"price\":10.0,\"quantity\":9,\"updatedAt\":\"" + T0 + "\"}\n"
+                + "{\"id\":2,\"name\":\"Desk\",\"price\":80.0,\"quantity\":1,\"updatedAt\":\"" + T0 + "\"}\n");
+
+        projection.sync();
+
+        assertEquals(12.0, projection.get(1L).getPrice());
+        assertEquals(80.0, projection.get(2L).getPrice());
+    }
+
+    @Test
+    void newerSnapshotRowReplacesAnOlderEvent() {
+        projection.apply(changes(updated(1L, 12.0, 3, T0)));
+        snapshot("{\"id\":1,\"name\":\"Lamp\",\"price\":10.0,\"quantity\":9,\"updatedAt\":\"" + T0.plusSeconds(5) + "\"}\n");
+
+        projection.sync();
+
+        assertEquals(10.0, projection.get(1L).getPrice());
+        assertEquals(9, projection.get(1L).getQuantity());
+    }
+
+    @Test
+    void eventsWithoutIdOrTimestampAreSkipped() {
+        projection.apply(changes(updated(null, 10.0, 5, T0), updated(2L, 10.0, 5, null)));
+
+        assertNull(projection.get(2L));
+    }
+
+    @Test
+    void callersGetACopy() {
+        projection.apply(changes(updated(1L, 10.0, 5, T0)));
+
+        Product first = projection.get(1L);
+        first.setQuantity(0);
+
+        assertNotSame(first, projection.get(1L));
+        assertEquals(5, projection.get(1L).getQuantity());
+    }
+
+    @Test
+    void disabledProjectionKnowsNothing() {
+        ProductCatalogProjection disabled = new ProductCatalogProjection(mock(ProductClient.class), new ObjectMapper(), false, 60);
+        disabled.apply(changes(updated(1L, 10.0, 5, T0)));
+
+        assertNull(disabled.get(1L));
+    }
+
+    private void snapshot(String ndjson) {
+        Response response = Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "/api/products/export", Map.of(), null, StandardCharsets.UTF_8, null))
+                .headers(Map.of())
+                .body(ndjson, StandardCharsets.UTF_8)
+                .build();
+        when(productClient.exportProducts(eq("ndjson"), any())).thenReturn(response);
+    }
+
+    private static ProductChanges changes(ProductEvent... events) {
+        return new ProductChanges(List.of(events));
+    }
+
+    private static ProductEvent updated(Long id, double price, int quantity, Instant at) {
+        return new ProductEvent(ProductEvent.UPDATED, id, "Lamp", price, quantity, true, at);
+    }
+
+    private static ProductEvent deleted(Long id, Instant at) {
+        return new ProductEvent(ProductEvent.DELETED, id, null, null, null, null, at);
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.payment.service.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Indexes on payments that ddl-auto cannot express or would build with a
+ * write lock. Both are built CONCURRENTLY, so a large table stays writable
+ * during the first start, and IF NOT EXISTS makes later starts a no-op:
+ * - idx_payments_order_id backs the lookups by order;
+ * - uq_payments_paid_order allows at most one PAID payment per order.
+ * Runs before the web server and listeners start, and startup fails while
+ * the unique index is missing: older duplicates have to be resolved by hand
+ * first, since without the index a retried charge could be paid twice.
+ */
+@Component
+public class PaymentSchemaMigration implements SmartInitializingSingleton {
+
+  private static final String ORDER_INDEX =
+    "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_order_id ON payments (order_id)";
+
+  private static final String PAID_UNIQUE_INDEX =
+    "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_payments_paid_order ON payments (order_id) " +
+    "WHERE status = 'PAID'";
+
+  // An interrupted CONCURRENTLY build leaves an invalid index that IF NOT EXISTS would keep forever
+  private static final String INVALID_INDEXES =
+    "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+    "WHERE NOT i.indisvalid AND c.relname IN ('idx_payments_order_id', 'uq_payments_paid_order')";
+
+  private static final String DUPLICATE_PAID_ORDERS =
+    "SELECT order_id FROM payments WHERE status = 'PAID' GROUP BY order_id HAVING COUNT(*) > 1 LIMIT 20";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PaymentSchemaMigration(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    for (String invalid : jdbcTemplate.queryForList(INVALID_INDEXES, String.class)) {
+      jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + invalid);
+    }
+
+    jdbcTemplate.execute(ORDER_INDEX);
+
+    List<Long> duplicates = jdbcTemplate.queryForList(DUPLICATE_PAID_ORDERS, Long.class);
+    if (!duplicates.isEmpty()) {
+      throw new IllegalStateException("Orders with more than one PAID payment, resolve them before starting: " + duplicates);
+    }
+    try {
+      jdbcTemplate.execute(PAID_UNIQUE_INDEX);
+    } catch (DataAccessException e) {
+      // A duplicate slipped in during the build; the invalid index is dropped and retried next start
+      throw new IllegalStateException("Could not create the one-payment-per-order index", e);
+    }
+  }
+}
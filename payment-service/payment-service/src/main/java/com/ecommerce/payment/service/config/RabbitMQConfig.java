@@ -7,19 +7,63 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitMQConfig {
 
+  public static final String EXCHANGE_NAME = "notificationExchange";
+  public static final String QUEUE_NAME = "notificationQueue";
+
+  // Payment outcomes, consumed by order-service. The queue and its dead-letter path are declared
+  // here too, with the same arguments, so events published before order-service first starts are kept
+  public static final String PAYMENT_EVENTS_EXCHANGE = "paymentEventsExchange";
+  public static final String PAYMENT_RESULT_ROUTING_KEY = "paymentResult";
+  public static final String PAYMENT_RESULTS_QUEUE = "orderPaymentResultsQueue";
+  public static final String PAYMENT_RESULTS_DLX = "orderPaymentResultsDlx";
+  public static final String PAYMENT_RESULTS_DLQ = "orderPaymentResultsQueue.dlq";
+
   @Bean
   public DirectExchange notificationExchange() {
-    return new DirectExchange("notificationExchange");
+    return new DirectExchange(EXCHANGE_NAME);
   }
 
   @Bean
   public Queue notificationQueue() {
-    return new Queue("notificationQueue", true);
+    return new Queue(QUEUE_NAME, true);
   }
 
   @Bean
   public Binding binding(Queue notificationQueue, DirectExchange notificationExchange) {
-    return BindingBuilder.bind(notificationQueue).to(notificationExchange).with("notificationQueue");
+    return BindingBuilder.bind(notificationQueue).to(notificationExchange).with(QUEUE_NAME);
+  }
+
+  @Bean
+  public DirectExchange paymentEventsExchange() {
+    return new DirectExchange(PAYMENT_EVENTS_EXCHANGE);
+  }
+
+  @Bean
+  public Queue orderPaymentResultsQueue() {
+    return QueueBuilder.durable(PAYMENT_RESULTS_QUEUE)
+        .deadLetterExchange(PAYMENT_RESULTS_DLX)
+        .deadLetterRoutingKey(PAYMENT_RESULTS_DLQ)
+        .build();
+  }
+
+  @Bean
+  public Binding paymentResultsBinding(Queue orderPaymentResultsQueue, DirectExchange paymentEventsExchange) {
+    return BindingBuilder.bind(orderPaymentResultsQueue).to(paymentEventsExchange).with(PAYMENT_RESULT_ROUTING_KEY);
+  }
+
+  @Bean
+  public DirectExchange orderPaymentResultsDlx() {
+    return new DirectExchange(PAYMENT_RESULTS_DLX);
+  }
+
+  @Bean
+  public Queue orderPaymentResultsDlq() {
+    return new Queue(PAYMENT_RESULTS_DLQ, true);
+  }
+
+  @Bean
+  public Binding paymentResultsDlqBinding(Queue orderPaymentResultsDlq, DirectExchange orderPaymentResultsDlx) {
+    return BindingBuilder.bind(orderPaymentResultsDlq).to(orderPaymentResultsDlx).with(PAYMENT_RESULTS_DLQ);
   }
 }
 
@@ -1,10 +1,12 @@
 package com.ecommerce.payment.service.controller;
 
 import com.ecommerce.payment.service.dto.PaymentRequest;
-import com.ecommerce.payment.service.model.Payment;
+import com.ecommerce.payment.service.dto.PaymentResponse;
+import com.ecommerce.payment.service.service.IdempotencyService;
 import com.ecommerce.payment.service.service.PaymentService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,26 +16,40 @@ import java.util.List;
 public class PaymentController {
 
   private final PaymentService service;
+  private final IdempotencyService idempotencyService;
 
-  public PaymentController(PaymentService service) {
+  public PaymentController(PaymentService service, IdempotencyService idempotencyService) {
     this.service = service;
+    this.idempotencyService = idempotencyService;
   }
 
   @GetMapping
-  public List<Payment> all() { return service.all(); }
+  public List<PaymentResponse> all() { return service.all().stream().map(PaymentResponse::of).toList(); }
 
   @GetMapping("/by-order/{orderId}")
-  public List<Payment> byOrder(@PathVariable Long orderId) { return service.byOrder(orderId); }
+  public List<PaymentResponse> byOrder(@PathVariable Long orderId) {
+    return service.byOrder(orderId).stream().map(PaymentResponse::of).toList();
+  }
 
+  // With an Idempotency-Key header, a retried request gets the original payment back instead of a new charge.
+  // An order that is already paid gets its PAID payment back with 200 instead of 201, with or without a key.
+  // Card details are left out of the key's fingerprint and of the stored response.
   @PostMapping
-  @ResponseStatus(HttpStatus.CREATED)
-  public Payment pay(@Valid @RequestBody PaymentRequest req) {
-    return service.pay(req.orderId(), req.amount(), req);
+  public ResponseEntity<?> pay(@Valid @RequestBody PaymentRequest req,
+                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+    return idempotencyService.execute("POST /api/payments", idempotencyKey, fingerprint(req), () -> {
+      PaymentService.PaymentOutcome outcome = service.pay(req.orderId(), req.amount(), req);
+      return ResponseEntity.status(outcome.created() ? HttpStatus.CREATED : HttpStatus.OK).body(PaymentResponse.of(outcome.payment()));
+    });
   }
 
   @PatchMapping("/{id}/status")
-  public Payment updateStatus(@PathVariable Long id, @RequestParam String status) {
-    return service.updateStatus(id, status);
+  public PaymentResponse updateStatus(@PathVariable Long id, @RequestParam String status) {
+    return PaymentResponse.of(service.updateStatus(id, status));
+  }
+
+  private static String fingerprint(PaymentRequest req) {
+    return req.orderId() + "|" + req.amount() + "|" + req.method();
   }
 }
 
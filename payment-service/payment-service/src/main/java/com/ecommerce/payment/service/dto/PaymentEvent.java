@@ -0,0 +1,23 @@
+package com.ecommerce.payment.service.dto;
+
+import com.ecommerce.payment.service.model.Payment;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a payment, published through the outbox once the payment is
+ * stored. order-service consumes it to move the order forward.
+ */
+public record PaymentEvent(
+  Long paymentId,
+  Long orderId,
+  String status,
+  Double amount,
+  String method,
+  Instant createdAt
+) {
+  public static PaymentEvent of(Payment payment) {
+    return new PaymentEvent(payment.getId(), payment.getOrderId(), payment.getStatus(),
+      payment.getAmount(), payment.getMethod(), payment.getCreatedAt());
+  }
+}
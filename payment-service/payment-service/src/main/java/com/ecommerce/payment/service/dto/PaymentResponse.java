@@ -0,0 +1,32 @@
+package com.ecommerce.payment.service.dto;
+
+import com.ecommerce.payment.service.model.Payment;
+
+import java.time.Instant;
+
+/**
+ * A payment as the API returns it. Card details stay out, except the last
+ * four digits: responses are also stored for idempotent replays.
+ */
+public record PaymentResponse(
+  Long id,
+  Long orderId,
+  Double amount,
+  String method,
+  String cardLast4,
+  String status,
+  Instant createdAt
+) {
+  public static PaymentResponse of(Payment payment) {
+    return new PaymentResponse(payment.getId(), payment.getOrderId(), payment.getAmount(), payment.getMethod(),
+      last4(payment.getCardNumber()), payment.getStatus(), payment.getCreatedAt());
+  }
+
+  private static String last4(String cardNumber) {
+    if (cardNumber == null) {
+      return null;
+    }
+    String digits = cardNumber.replaceAll("\\D", "");
+    return digits.length() < 4 ? null : digits.substring(digits.length() - 4);
+  }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.payment.service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * The stored outcome of a request sent with an Idempotency-Key. status is 0
+ * while the first execution is still running.
+ */
+@Entity
+@Table(name = "payment_idempotency_keys",
+       indexes = @Index(name = "idx_payment_idempotency_keys_created_at", columnList = "created_at"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyRecord {
+  // Scope and client key, e.g. "POST /api/payments:3f2a..."
+  @Id
+  private String id;
+
+  @Column(name = "request_hash", nullable = false)
+  private String requestHash;
+
+  @Column(nullable = false)
+  private int status;
+
+  @Column(columnDefinition = "text")
+  private String body;
+
+  private String location;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.payment.service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A RabbitMQ message written in the same transaction as the payment it
+ * announces; OutboxRelay publishes it and deletes the row once confirmed.
+ */
+@Entity
+@Table(name = "payment_outbox_messages")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class OutboxMessage {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String exchange;
+
+  @Column(nullable = false)
+  private String routingKey;
+
+  // Fully qualified class name, sent as the __TypeId__ header
+  @Column(nullable = false)
+  private String payloadType;
+
+  @Column(nullable = false, columnDefinition = "text")
+  private String payload;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+}
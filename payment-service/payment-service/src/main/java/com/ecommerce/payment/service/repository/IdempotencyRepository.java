@@ -0,0 +1,40 @@
+package com.ecommerce.payment.service.repository;
+
+import com.ecommerce.payment.service.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  /**
+   * Claims a key for execution. Returns 1 when the key is new, or when an
+   * earlier claim was abandoned (still running after staleBefore); 0 when
+   * someone else owns it.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "INSERT INTO payment_idempotency_keys (id, request_hash, status, created_at) " +
+                 "VALUES (:id, :requestHash, 0, :now) " +
+                 "ON CONFLICT (id) DO UPDATE SET request_hash = :requestHash, created_at = :now " +
+                 "WHERE payment_idempotency_keys.status = 0 AND payment_idempotency_keys.created_at < :staleBefore",
+         nativeQuery = true)
+  int claim(@Param("id") String id, @Param("requestHash") String requestHash,
+            @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.body = :body, r.location = :location " +
+         "WHERE r.id = :id")
+  int complete(@Param("id") String id, @Param("status") int status,
+               @Param("body") String body, @Param("location") String location);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+  int deleteCreatedBefore(@Param("before") Instant before);
+}
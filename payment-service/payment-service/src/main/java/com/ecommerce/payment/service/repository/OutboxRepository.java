@@ -0,0 +1,15 @@
+package com.ecommerce.payment.service.repository;
+
+import com.ecommerce.payment.service.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxMessage, Long> {
+  // SKIP LOCKED lets several payment-service instances relay side by side
+  @Query(value = "SELECT * FROM payment_outbox_messages ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+         nativeQuery = true)
+  List<OutboxMessage> lockBatch(@Param("limit") int limit);
+}
@@ -2,10 +2,18 @@ package com.ecommerce.payment.service.repository;
 
 import com.ecommerce.payment.service.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
+// Lookups by order use idx_payments_order_id and uq_payments_paid_order (see PaymentSchemaMigration)
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
   List<Payment> findByOrderId(Long orderId);
+
+  // The literal status lets Postgres answer from the partial unique index
+  @Query("SELECT p FROM Payment p WHERE p.orderId = :orderId AND p.status = 'PAID'")
+  Optional<Payment> findPaidByOrderId(@Param("orderId") Long orderId);
 }
 
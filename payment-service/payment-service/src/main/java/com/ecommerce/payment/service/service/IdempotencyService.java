@@ -0,0 +1,185 @@
+package com.ecommerce.payment.service.service;
+
+import com.ecommerce.payment.service.model.IdempotencyRecord;
+import com.ecommerce.payment.service.repository.IdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key. Replays get the stored
+ * response back, concurrent duplicates on this instance wait for the running
+ * execution, and a duplicate on another instance gets 409 until the first one
+ * finishes. Failed executions are not stored, so the client may retry them.
+ */
+@Service
+public class IdempotencyService {
+
+  public static final String HEADER = "Idempotency-Key";
+  private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+  private static final int MAX_KEY_LENGTH = 200;
+
+  private record StoredResponse(String requestHash, int status, String body, String location) {}
+
+  private final IdempotencyRepository idempotencyRepository;
+  private final ObjectMapper objectMapper;
+  private final Cache<String, StoredResponse> completed;
+  private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+  private final Duration ttl;
+  private final Duration staleAfter;
+
+  public IdempotencyService(IdempotencyRepository idempotencyRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${idempotency.cache-size:10000}") long cacheSize,
+                            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${idempotency.stale-after-seconds:300}") long staleAfterSeconds) {
+    this.idempotencyRepository = idempotencyRepository;
+    this.objectMapper = objectMapper;
+    this.ttl = Duration.ofHours(ttlHours);
+    this.staleAfter = Duration.ofSeconds(staleAfterSeconds);
+    this.completed = Caffeine.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  /**
+   * @param scope       the endpoint, so the same key can be used on different endpoints
+   * @param key         the client's Idempotency-Key, or null to just run the action
+   * @param fingerprint the request parameters; reusing a key for a different request is rejected
+   */
+  public ResponseEntity<?> execute(String scope, String key, String fingerprint, Supplier<ResponseEntity<?>> action) {
+    if (key == null || key.isBlank()) {
+      return action.get();
+    }
+    if (key.length() > MAX_KEY_LENGTH) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, HEADER + " is too long");
+    }
+
+    String id = scope + ":" + key;
+    String requestHash = DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8));
+
+    StoredResponse cached = completed.getIfPresent(id);
+    if (cached != null) {
+      return replay(cached, requestHash);
+    }
+
+    CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+    CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, execution);
+    if (running != null) {
+      return replay(await(running), requestHash);
+    }
+
+    try {
+      StoredResponse stored = idempotencyRepository.findById(id)
+          .filter(record -> record.getStatus() > 0)
+          .map(IdempotencyService::toStoredResponse)
+          .orElse(null);
+      if (stored != null) {
+        completed.put(id, stored);
+        execution.complete(stored);
+        return replay(stored, requestHash);
+      }
+
+      Instant now = Instant.now();
+      if (idempotencyRepository.claim(id, requestHash, now, now.minus(staleAfter)) == 0) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+            "A request with this " + HEADER + " is still being processed");
+      }
+
+      ResponseEntity<?> response;
+      try {
+        response = action.get();
+      } catch (RuntimeException e) {
+        // Not stored: the client may retry a failed request with the same key
+        idempotencyRepository.deleteById(id);
+        throw e;
+      }
+
+      URI location = response.getHeaders().getLocation();
+      StoredResponse result = new StoredResponse(requestHash, response.getStatusCode().value(),
+          toJson(response.getBody()), location != null ? location.toString() : null);
+      idempotencyRepository.complete(id, result.status(), result.body(), result.location());
+      completed.put(id, result);
+      execution.complete(result);
+      return response;
+    } catch (RuntimeException e) {
+      execution.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(id, execution);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+  public void purgeExpired() {
+    int purged = idempotencyRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+    if (purged > 0) {
+      System.out.println("🧹 Purged " + purged + " expired idempotency keys");
+    }
+  }
+
+  private static StoredResponse await(CompletableFuture<StoredResponse> running) {
+    try {
+      return running.get(30, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT,
+          "A request with this " + HEADER + " is still being processed");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for the original request");
+    }
+  }
+
+  private static ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+    if (!stored.requestHash().equals(requestHash)) {
+      throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+          HEADER + " was already used for a different request");
+    }
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status())
+        .header(REPLAYED_HEADER, "true")
+        .contentType(MediaType.APPLICATION_JSON);
+    if (stored.location() != null) {
+      builder.header(HttpHeaders.LOCATION, stored.location());
+    }
+    return builder.body(stored.body());
+  }
+
+  private static StoredResponse toStoredResponse(IdempotencyRecord record) {
+    return new StoredResponse(record.getRequestHash(), record.getStatus(), record.getBody(), record.getLocation());
+  }
+
+  private String toJson(Object body) {
+    try {
+      return body == null ? null : objectMapper.writeValueAsString(body);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Failed to store idempotent response: " + e.getMessage(), e);
+    }
+  }
+}
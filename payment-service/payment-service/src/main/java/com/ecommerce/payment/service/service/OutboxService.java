@@ -0,0 +1,38 @@
+package com.ecommerce.payment.service.service;
+
+import com.ecommerce.payment.service.model.OutboxMessage;
+import com.ecommerce.payment.service.repository.OutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Queues RabbitMQ messages as JSON in the outbox table; inside a transaction
+ * they commit or roll back with the caller's changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+  private final OutboxRepository outboxRepository;
+  private final ObjectMapper objectMapper;
+
+  @Transactional
+  public void enqueue(String exchange, String routingKey, Object payload) {
+    try {
+      outboxRepository.save(OutboxMessage.builder()
+        .exchange(exchange)
+        .routingKey(routingKey)
+        .payloadType(payload.getClass().getName())
+        .payload(objectMapper.writeValueAsString(payload))
+        .createdAt(Instant.now())
+        .build());
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Failed to serialize outbox message: " + e.getMessage(), e);
+    }
+  }
+}
@@ -1,12 +1,16 @@
 package com.ecommerce.payment.service.service;
 
-import com.ecommerce.payment.service.client.OrderClient;
+import com.ecommerce.payment.service.config.RabbitMQConfig;
 import com.ecommerce.payment.service.model.Payment;
+import com.ecommerce.payment.service.dto.PaymentEvent;
 import com.ecommerce.payment.service.dto.PaymentRequest;
 import com.ecommerce.payment.service.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
 import java.util.List;
@@ -16,10 +20,20 @@ import java.util.List;
 public class PaymentService {
 
   private final PaymentRepository repo;
-  private final OrderClient orderClient;
-  private final RabbitTemplate rabbitTemplate;
+  private final OutboxService outboxService;
+  private final TransactionTemplate transactionTemplate;
+
+  /** The payment for the request; created is false when the order was already paid. */
+  public record PaymentOutcome(Payment payment, boolean created) {}
+
+  public PaymentOutcome pay(Long orderId, Double amount, PaymentRequest request) {
+    // 0) an order is paid at most once: a repeated request gets the existing payment back
+    Payment existing = repo.findPaidByOrderId(orderId).orElse(null);
+    if (existing != null) {
+      System.out.println("[PaymentService] Order #" + orderId + " already paid by payment #" + existing.getId());
+      return new PaymentOutcome(existing, false);
+    }
 
-  public Payment pay(Long orderId, Double amount, PaymentRequest request) {
     // 1) validate and determine status
     // Simulate failure for specific CVV or invalid amounts
     boolean isSuccessful = amount != null && amount > 0 && !"999".equals(request.cardNumber()); // Using cardNumber since CVV is often 123
@@ -43,38 +57,43 @@ public class PaymentService {
       .status(status)
       .createdAt(Instant.now())
       .build();
-    Payment saved = repo.save(p);
+    // 2) the payment, its result event and its notification commit together; the outbox
+    // relay publishes them, so the request returns as soon as the payment is stored
+    Payment saved;
+    try {
+      saved = transactionTemplate.execute(tx -> {
+        Payment stored = repo.save(p);
+        outboxService.enqueue(
+          RabbitMQConfig.PAYMENT_EVENTS_EXCHANGE,
+          RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY,
+          PaymentEvent.of(stored)
+        );
+        outboxService.enqueue(
+          RabbitMQConfig.EXCHANGE_NAME,
+          RabbitMQConfig.QUEUE_NAME,
+          new NotificationMessage(
+            List.of("admin@demo.com"),
+            "+212000000000",
+            "Payment " + status,
+            "Payment " + status + " for Order #" + orderId + " (MAD " + String.format("%.2f", amount) + " via " + request.method() + ")"
+          )
+        );
+        return stored;
+      });
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent request paid the order first and uq_payments_paid_order rejected this one
+      Payment winner = repo.findPaidByOrderId(orderId).orElseThrow(() -> e);
+      return new PaymentOutcome(winner, false);
+    }
 
-    // 2) update order status -> Only if PAID
+    // 3) order-service marks the order PAID when the event arrives
     if (isSuccessful) {
-        try {
-          orderClient.updateStatus(orderId, new OrderClient.StatusReq("PAID"));
-          System.out.println("[PaymentService] Order #" + orderId + " updated to PAID");
-        } catch (Exception e) {
-          System.err.println("[PaymentService] Failed to update order status for orderId=" + orderId + ": " + e.getMessage());
-        }
+        System.out.println("[PaymentService] Payment recorded for Order #" + orderId + ", result event queued");
     } else {
         System.err.println("[PaymentService] Payment FAILED for Order #" + orderId + ". Status remains PENDING.");
     }
 
-    // 3) async notification
-    try {
-      NotificationMessage msg = new NotificationMessage(
-        List.of("admin@demo.com"), 
-        "+212000000000",
-        "Payment " + status + " for Order #" + orderId + " (MAD " + String.format("%.2f", amount) + " via " + request.method() + ")"
-      );
-
-      rabbitTemplate.convertAndSend(
-        "notificationExchange",
-        "notificationQueue",
-        msg
-      );
-    } catch (Exception e) {
-      System.err.println("⚠️ Failed to send payment notification: " + e.getMessage());
-    }
-
-    return saved;
+    return new PaymentOutcome(saved, true);
   }
 
   public java.util.List<Payment> all() { return repo.findAll(); }
@@ -83,9 +102,14 @@ public class PaymentService {
   public Payment updateStatus(Long id, String status) {
     Payment p = repo.findById(id).orElseThrow(() -> new RuntimeException("Payment not found"));
     p.setStatus(status);
-    return repo.save(p);
+    try {
+      return repo.save(p);
+    } catch (DataIntegrityViolationException e) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, "Order #" + p.getOrderId() + " already has a PAID payment");
+    }
   }
 
-  public record NotificationMessage(java.util.List<String> toList, String phone, String text) {}
+  // Field names match notification-service's NotificationMessage
+  public record NotificationMessage(java.util.List<String> to, String phone, String subject, String message) {}
 }
 
@@ -0,0 +1,66 @@
+package com.ecommerce.payment.service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentSchemaMigrationTest {
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final PaymentSchemaMigration migration = new PaymentSchemaMigration(jdbcTemplate);
+
+  @Test
+  void createsBothIndexes() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of());
+
+    migration.afterSingletonsInstantiated();
+
+    verify(jdbcTemplate).execute(contains("idx_payments_order_id"));
+    verify(jdbcTemplate).execute(contains("uq_payments_paid_order"));
+  }
+
+  @Test
+  void duplicatePaidPaymentsStopStartup() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of(42L));
+
+    IllegalStateException failure = assertThrows(IllegalStateException.class, migration::afterSingletonsInstantiated);
+
+    assertTrue(failure.getMessage().contains("[42]"), failure.getMessage());
+    verify(jdbcTemplate, never()).execute(contains("uq_payments_paid_order"));
+  }
+
+  @Test
+  void failedUniqueIndexBuildStopsStartup() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of());
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of());
+    doThrow(new DataIntegrityViolationException("duplicate key"))
+      .when(jdbcTemplate).execute(contains("uq_payments_paid_order"));
+
+    assertThrows(IllegalStateException.class, migration::afterSingletonsInstantiated);
+  }
+
+  @Test
+  void dropsIndexesLeftInvalidByAnInterruptedBuild() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("uq_payments_paid_order"));
+    when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of());
+
+    migration.afterSingletonsInstantiated();
+
+    verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS uq_payments_paid_order");
+  }
+}
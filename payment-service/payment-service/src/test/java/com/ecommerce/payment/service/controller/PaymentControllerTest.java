@@ -0,0 +1,74 @@
+package com.ecommerce.payment.service.controller;
+
+import com.ecommerce.payment.service.dto.PaymentRequest;
+import com.ecommerce.payment.service.dto.PaymentResponse;
+import com.ecommerce.payment.service.model.Payment;
+import com.ecommerce.payment.service.service.IdempotencyService;
+import com.ecommerce.payment.service.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentControllerTest {
+
+  private final PaymentService paymentService = mock(PaymentService.class);
+  private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+  private final PaymentController controller = new PaymentController(paymentService, idempotencyService);
+
+  @Test
+  void fingerprintLeavesCardDetailsOut() {
+    controller.pay(request(10.0, "4111111111111111", "123"), "key-1");
+    controller.pay(request(10.0, "5500000000000004", "456"), "key-1");
+    controller.pay(request(12.5, "4111111111111111", "123"), "key-1");
+
+    ArgumentCaptor<String> fingerprints = ArgumentCaptor.forClass(String.class);
+    verify(idempotencyService, times(3)).execute(anyString(), eq("key-1"), fingerprints.capture(), any());
+    List<String> seen = fingerprints.getAllValues();
+
+    assertEquals(seen.get(0), seen.get(1));
+    assertNotEquals(seen.get(0), seen.get(2));
+    assertFalse(seen.get(0).contains("4111"), seen.get(0));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void storedResponseCarriesNoCardDetails() throws Exception {
+    Payment payment = Payment.builder().id(5L).orderId(1L).amount(10.0).method("CARD")
+        .cardNumber("4111 1111 1111 1111").cvv("123").expiryDate("12/30").ownerName("Ada")
+        .status("PAID").createdAt(Instant.now()).build();
+    when(paymentService.pay(any(), any(), any())).thenReturn(new PaymentService.PaymentOutcome(payment, true));
+    when(idempotencyService.execute(anyString(), any(), anyString(), any()))
+        .thenAnswer(call -> ((Supplier<ResponseEntity<?>>) call.getArgument(3)).get());
+
+    ResponseEntity<?> response = controller.pay(request(10.0, "4111 1111 1111 1111", "123"), "key-1");
+
+    PaymentResponse body = assertInstanceOf(PaymentResponse.class, response.getBody());
+    assertEquals("1111", body.cardLast4());
+    String json = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(body);
+    assertFalse(json.contains("4111"), json);
+    assertFalse(json.contains("cvv"), json);
+    assertFalse(json.contains("Ada"), json);
+  }
+
+  private static PaymentRequest request(double amount, String cardNumber, String cvv) {
+    return new PaymentRequest(1L, amount, "CARD", cardNumber, cvv, "12/30", "Ada");
+  }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.payment.service.service;
+
+import com.ecommerce.payment.service.config.RabbitMQConfig;
+import com.ecommerce.payment.service.dto.PaymentEvent;
+import com.ecommerce.payment.service.dto.PaymentRequest;
+import com.ecommerce.payment.service.model.Payment;
+import com.ecommerce.payment.service.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTest {
+
+  private final PaymentRepository repo = mock(PaymentRepository.class);
+  private final OutboxService outboxService = mock(OutboxService.class);
+  private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+  // Runs callbacks directly; commit and rollback go to the mocked manager
+  private final PaymentService service =
+    new PaymentService(repo, outboxService, new TransactionTemplate(transactionManager));
+
+  @Test
+  void alreadyPaidOrderGetsTheExistingPaymentBack() {
+    Payment paid = paid(900L);
+    when(repo.findPaidByOrderId(42L)).thenReturn(Optional.of(paid));
+
+    PaymentService.PaymentOutcome outcome = service.pay(42L, 20.0, request("123"));
+
+    assertSame(paid, outcome.payment());
+    assertFalse(outcome.created());
+    verify(repo, never()).save(any());
+    verifyNoInteractions(outboxService, transactionManager);
+  }
+
+  @Test
+  void newPaymentIsStoredWithItsEventAndNotification() {
+    when(repo.findPaidByOrderId(42L)).thenReturn(Optional.empty());
+    when(repo.save(any())).thenAnswer(call -> {
+      Payment stored = call.getArgument(0);
+      stored.setId(900L);
+      return stored;
+    });
+
+    PaymentService.PaymentOutcome outcome = service.pay(42L, 20.0, request("123"));
+
+    assertTrue(outcome.created());
+    assertEquals("PAID", outcome.payment().getStatus());
+    verify(outboxService).enqueue(eq(RabbitMQConfig.PAYMENT_EVENTS_EXCHANGE), eq(RabbitMQConfig.PAYMENT_RESULT_ROUTING_KEY),
+      any(PaymentEvent.class));
+    verify(outboxService).enqueue(eq(RabbitMQConfig.EXCHANGE_NAME), eq(RabbitMQConfig.QUEUE_NAME),
+      any(PaymentService.NotificationMessage.class));
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void declinedCardIsStoredAsFailed() {
+    when(repo.findPaidByOrderId(42L)).thenReturn(Optional.empty());
+    when(repo.save(any())).thenAnswer(call -> call.getArgument(0));
+
+    PaymentService.PaymentOutcome outcome = service.pay(42L, 20.0, request("999"));
+
+    assertTrue(outcome.created());
+    assertEquals("FAILED", outcome.payment().getStatus());
+  }
+
+  @Test
+  void concurrentDuplicateReturnsThePaymentThatWon() {
+    Payment winner = paid(901L);
+    // Nothing paid yet when this request looked; the other request committed first
+    when(repo.findPaidByOrderId(42L)).thenReturn(Optional.empty(), Optional.of(winner));
+    when(repo.save(any())).thenThrow(new DataIntegrityViolationException("uq_payments_paid_order"));
+
+    PaymentService.PaymentOutcome outcome = service.pay(42L, 20.0, request("123"));
+
+    assertSame(winner, outcome.payment());
+    assertFalse(outcome.created());
+    verify(transactionManager).rollback(any());
+    verify(outboxService, never()).enqueue(anyString(), anyString(), any());
+  }
+
+  @Test
+  void integrityViolationWithoutAPaidPaymentIsRethrown() {
+    DataIntegrityViolationException violation = new DataIntegrityViolationException("amount is null");
+    when(repo.findPaidByOrderId(42L)).thenReturn(Optional.empty());
+    when(repo.save(any())).thenThrow(violation);
+
+    assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+      () -> service.pay(42L, 20.0, request("123"))));
+  }
+
+  private static Payment paid(Long id) {
+    return Payment.builder().id(id).orderId(42L).amount(20.0).method("CARD").status("PAID")
+      .createdAt(Instant.now()).build();
+  }
+
+  private static PaymentRequest request(String cvv) {
+    return new PaymentRequest(42L, 20.0, "CARD", "4111111111111111", cvv, "12/30", "Ada");
+  }
+}
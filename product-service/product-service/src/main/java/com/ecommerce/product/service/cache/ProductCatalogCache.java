@@ -0,0 +1,124 @@
+package com.ecommerce.product.service.cache;
+
+import com.ecommerce.product.service.service.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches catalog reads as ready-to-send JSON plus a strong ETag, so repeated
+ * polls of an unchanged catalog skip both the database and serialization.
+ * The cache is bounded by the total size of the cached bodies.
+ * Listings carry a version in their key: a catalog change bumps it, which
+ * retires every cached listing at once without scanning the cache. Stock
+ * changes only drop the product itself; listings pick up the new quantity
+ * within their short list TTL.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private static final String LIST_PREFIX = "list:";
+    private static final String PRODUCT_PREFIX = "product:";
+
+    public record Entry(byte[] body, String etag) {}
+
+    private final Cache<String, Entry> cache;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong listVersion = new AtomicLong();
+
+    public ProductCatalogCache(ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${product.cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${product.cache.ttl-seconds:60}") long ttlSeconds,
+                               @Value("${product.cache.list-ttl-seconds:5}") long listTtlSeconds) {
+        this.objectMapper = objectMapper;
+        // The TTL only bounds staleness caused by writes on other replicas;
+        // local writes evict immediately, except stock changes in listings.
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long listTtlNanos = Duration.ofSeconds(Math.min(listTtlSeconds, ttlSeconds)).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> key.length() + entry.body().length)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return key.startsWith(LIST_PREFIX) ? listTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productCatalog");
+    }
+
+    /** Cached listing; the key must identify every parameter of the listing. */
+    public Entry list(String key, Supplier<Object> loader) {
+        return load(LIST_PREFIX + listVersion.get() + ":" + key, loader);
+    }
+
+    /** Cached single product, or null when the loader finds nothing. */
+    public Entry product(Long id, Supplier<Object> loader) {
+        return load(PRODUCT_PREFIX + id, loader);
+    }
+
+    /**
+     * Drops the product and retires every listing, for changes that can move
+     * a product in or out of a listing (create, update, delete, import).
+     * Inside a transaction this happens after commit, so a concurrent read
+     * cannot re-cache the old state.
+     */
+    public void evict(Long productId) {
+        AfterCommit.run(() -> {
+            evictProduct(productId);
+            // Old listings are no longer looked up and age out on their own
+            listVersion.incrementAndGet();
+        });
+    }
+
+    /** Drops only the product, for stock changes; see the class comment. */
+    public void evictStock(Long productId) {
+        AfterCommit.run(() -> evictProduct(productId));
+    }
+
+    private void evictProduct(Long productId) {
+        if (productId != null) {
+            cache.invalidate(PRODUCT_PREFIX + productId);
+        }
+    }
+
+    private Entry load(String key, Supplier<Object> loader) {
+        return cache.get(key, k -> {
+            Object value = loader.get();
+            return value == null ? null : toEntry(value);
+        });
+    }
+
+    private Entry toEntry(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            return new Entry(body, "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog entry", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.product.service.config;
+
+import com.ecommerce.product.service.service.ProductImportService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * CLI import mode: start with --product.import.file=/data/products.csv[.gz]
+ * (or .ndjson / .jsonl) to load the file and exit. Adding
+ * --spring.main.web-application-type=none skips the web server.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty("product.import.file")
+public class ProductImportRunner implements ApplicationRunner {
+
+    private final ProductImportService importService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+
+    public ProductImportRunner(ProductImportService importService,
+                               ConfigurableApplicationContext context,
+                               @Value("${product.import.file}") String file) {
+        this.importService = importService;
+        this.context = context;
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String name = file.getFileName().toString().toLowerCase();
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) {
+            name = name.substring(0, name.length() - 3);
+        }
+        String format = name.endsWith(".csv") ? ProductImportService.CSV : ProductImportService.NDJSON;
+
+        int exitCode = 0;
+        try (InputStream in = gzip
+                ? new GZIPInputStream(Files.newInputStream(file), 64 * 1024)
+                : Files.newInputStream(file)) {
+            importService.importProducts(in, format);
+        } catch (Exception e) {
+            System.err.println("[ProductImport] Import of " + file + " failed: " + e.getMessage());
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.product.service.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves product_seq past the highest existing id. Rows inserted while the id
+ * column was an identity column would otherwise collide with sequence ids.
+ * Runs once every singleton, the JPA schema included, is ready, but before
+ * the web server, scheduled jobs, listeners and runners start: nothing can
+ * insert a product before the sequence is fixed, and a failure stops startup.
+ */
+@Component
+public class ProductSequenceInitializer implements SmartInitializingSingleton {
+
+    // The pooled optimizer hands out the 50 ids up to each sequence value
+    private static final String SYNC_SEQUENCE =
+            "SELECT setval('product_seq', GREATEST(" +
+            "(SELECT COALESCE(MAX(id), 0) FROM product) + 50, " +
+            "(SELECT last_value FROM product_seq)))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.queryForObject(SYNC_SEQUENCE, Long.class);
+    }
+}
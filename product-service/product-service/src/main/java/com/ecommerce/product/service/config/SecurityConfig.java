@@ -47,10 +47,13 @@ public class SecurityConfig {
                 .requestMatchers("/actuator/**").permitAll()
                 
                 // Admin-only endpoints
-                .requestMatchers(HttpMethod.POST, "/api/products").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/products", "/api/products/import").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/products/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/products/*/hot-mode").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/products/*/reduce-stock").hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/api/products/reserve-stock").hasAnyRole("ADMIN", "USER")
+                .requestMatchers(HttpMethod.POST, "/api/products/holds", "/api/products/holds/**").hasAnyRole("ADMIN", "USER")
                 
                 // All other requests require authentication
                 .anyRequest().authenticated()
@@ -1,41 +1,134 @@
 package com.ecommerce.product.service.controller;
 
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.dto.CatalogQuery;
+import com.ecommerce.product.service.dto.ImportResult;
+import com.ecommerce.product.service.dto.StockLine;
 import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.service.ProductExportService;
+import com.ecommerce.product.service.service.ProductImportService;
 import com.ecommerce.product.service.service.ProductService;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = { "http://localhost:4200", "http://localhost:8080" })
 public class ProductController {
 
+    private static final int MAX_BATCH_IDS = 200;
+    private static final String EXPORT_WATERMARK = "X-Export-Watermark";
+
     private final ProductService productService;
+    private final ProductCatalogCache catalogCache;
+    private final ProductExportService exportService;
+    private final ProductImportService importService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCatalogCache catalogCache,
+                             ProductExportService exportService, ProductImportService importService) {
         this.productService = productService;
+        this.catalogCache = catalogCache;
+        this.exportService = exportService;
+        this.importService = importService;
     }
 
     /**
-     * GET /api/products - Get all products
+     * GET /api/products?cursor=&limit=&sort=id|price|name&direction=asc|desc&view=full|summary
+     * - Keyset-paginated products as {items, nextCursor}
+     * GET /api/products?unpaged=true - Legacy list of all products
+     * Both are cached and answer If-None-Match with 304.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    public ResponseEntity<byte[]> getAllProducts(@RequestParam(defaultValue = "false") boolean unpaged,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int limit,
+                                                 @RequestParam(defaultValue = "id") String sort,
+                                                 @RequestParam(defaultValue = "asc") String direction,
+                                                 @RequestParam(defaultValue = "full") String view) {
+        if (unpaged) {
+            return cachedResponse(catalogCache.list("all", productService::getAllProducts));
+        }
+        CatalogQuery query = CatalogQuery.of(sort, direction, limit, view, cursor);
+        return cachedResponse(catalogCache.list(query.cacheKey(), () -> productService.getProductPage(query)));
+    }
+
+    /**
+     * GET /api/products/search?q=&limit= - Full-text search over name and description, best match first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.searchProducts(q, Math.max(1, Math.min(limit, 100))));
+    }
+
+    /**
+     * GET /api/products/batch?ids=1,2,3 - Several products in one call (unknown ids are left out)
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per batch");
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    /**
+     * GET /api/products/export?format=ndjson|csv&updatedSince=2024-01-01T00:00:00Z
+     * - Streams the whole catalog (or only products changed since a point in time,
+     *   with an overlap; see ProductExportService), gzip-compressed when the client accepts it
+     * - X-Export-Watermark: the updatedSince to pass on the next incremental export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Instant updatedSince,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        String checkedFormat = ProductExportService.checkFormat(format);
+        Instant watermark = exportService.watermark();
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(gzipOut, checkedFormat, updatedSince);
+                gzipOut.finish();
+            } else {
+                exportService.export(out, checkedFormat, updatedSince);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(EXPORT_WATERMARK, watermark.toString())
+                .contentType(ProductExportService.CSV.equals(checkedFormat)
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
-     * GET /api/products/{id} - Get product by ID
+     * GET /api/products/{id} - Get product by ID (cached, answers If-None-Match with 304)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return productService.getProductById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id) {
+        return cachedResponse(catalogCache.product(id, () -> productService.getProductById(id).orElse(null)));
     }
 
     /**
@@ -47,6 +140,21 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
     }
 
+    /**
+     * POST /api/products/import?format=csv|ndjson - Bulk import from the raw request body,
+     * optionally sent with Content-Encoding: gzip (Admin only)
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportResult> importProducts(@RequestParam String format, HttpServletRequest request)
+            throws IOException {
+        String checkedFormat = ProductImportService.checkFormat(format);
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        return ResponseEntity.ok(importService.importProducts(body, checkedFormat));
+    }
+
     /**
      * PUT /api/products/{id} - Update product (Admin only)
      */
@@ -74,4 +182,32 @@ public class ProductController {
         productService.reduceStock(id, quantity);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * POST /api/products/reserve-stock - Reserve stock for several products at once (all or nothing)
+     */
+    @PostMapping("/reserve-stock")
+    public ResponseEntity<Void> reserveStock(@RequestBody List<StockLine> lines) {
+        productService.reserveStock(lines);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * POST /api/products/{id}/hot-mode?shards=N - Split stock over N counter shards (Admin only, 0 turns it off)
+     */
+    @PostMapping("/{id}/hot-mode")
+    public ResponseEntity<Product> setHotMode(@PathVariable Long id, @RequestParam int shards) {
+        return ResponseEntity.ok(productService.setHotMode(id, shards));
+    }
+
+    private ResponseEntity<byte[]> cachedResponse(ProductCatalogCache.Entry entry) {
+        if (entry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // Spring answers a matching If-None-Match with 304 and no body
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(entry.body());
+    }
 }
@@ -0,0 +1,49 @@
+package com.ecommerce.product.service.controller;
+
+import com.ecommerce.product.service.dto.StockLine;
+import com.ecommerce.product.service.model.StockHold;
+import com.ecommerce.product.service.service.StockHoldService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products/holds")
+@CrossOrigin(origins = { "http://localhost:4200", "http://localhost:8080" })
+public class StockHoldController {
+
+    private final StockHoldService stockHoldService;
+
+    public StockHoldController(StockHoldService stockHoldService) {
+        this.stockHoldService = stockHoldService;
+    }
+
+    /**
+     * POST /api/products/holds?reference=...&ttlSeconds=... - Hold stock for a checkout
+     */
+    @PostMapping
+    public ResponseEntity<List<StockHold>> hold(@RequestParam String reference,
+                                                @RequestParam(required = false) Long ttlSeconds,
+                                                @RequestBody List<StockLine> lines) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockHoldService.hold(reference, lines, ttlSeconds));
+    }
+
+    /**
+     * POST /api/products/holds/{reference}/confirm - Turn held stock into a sale
+     */
+    @PostMapping("/{reference}/confirm")
+    public ResponseEntity<List<StockHold>> confirm(@PathVariable String reference) {
+        return ResponseEntity.ok(stockHoldService.confirm(reference));
+    }
+
+    /**
+     * POST /api/products/holds/{reference}/release - Give held stock back
+     */
+    @PostMapping("/{reference}/release")
+    public ResponseEntity<Void> release(@PathVariable String reference) {
+        stockHoldService.release(reference);
+        return ResponseEntity.noContent().build();
+    }
+}
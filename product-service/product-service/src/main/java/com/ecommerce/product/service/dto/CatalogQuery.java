@@ -0,0 +1,75 @@
+package com.ecommerce.product.service.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Parsed parameters of a keyset-paginated catalog listing.
+ * The cursor is an opaque token carrying the sort key and id of the last row
+ * of the previous page, so each page is an index range scan with no OFFSET.
+ */
+public record CatalogQuery(
+    String sort,        // id, price or name
+    boolean descending,
+    int limit,
+    boolean summary,    // true skips description and imageUrl
+    String afterValue,  // sort key of the last row already returned, null on the first page
+    Long afterId
+) {
+
+    public static final int MAX_LIMIT = 500;
+
+    public static CatalogQuery of(String sort, String direction, int limit, String view, String cursor) {
+        if (!sort.equals("id") && !sort.equals("price") && !sort.equals("name")) {
+            throw badRequest("sort must be one of id, price, name");
+        }
+        if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            throw badRequest("direction must be asc or desc");
+        }
+        if (!view.equals("full") && !view.equals("summary")) {
+            throw badRequest("view must be full or summary");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw badRequest("limit must be between 1 and " + MAX_LIMIT);
+        }
+        boolean descending = direction.equalsIgnoreCase("desc");
+        boolean summary = view.equals("summary");
+        if (cursor == null || cursor.isBlank()) {
+            return new CatalogQuery(sort, descending, limit, summary, null, null);
+        }
+
+        // Cursor layout: sort|direction|id|value (value last, it may contain '|')
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw badRequest("Malformed cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(sort) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw badRequest("Cursor does not match the requested sort");
+        }
+        try {
+            return new CatalogQuery(sort, descending, limit, summary, parts[3], Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            throw badRequest("Malformed cursor");
+        }
+    }
+
+    /** Cursor pointing after the given row. */
+    public String cursorAfter(Long id, String value) {
+        String raw = sort + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String cacheKey() {
+        return sort + ":" + (descending ? "desc" : "asc") + ":" + limit + ":" + (summary ? "summary" : "full")
+                + ":" + afterId + ":" + afterValue;
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
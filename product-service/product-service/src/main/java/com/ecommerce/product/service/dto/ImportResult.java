@@ -0,0 +1,11 @@
+package com.ecommerce.product.service.dto;
+
+/**
+ * Outcome of a bulk product import.
+ */
+public record ImportResult(long rows, long millis, long rowsPerSecond) {
+
+    public static ImportResult of(long rows, long millis) {
+        return new ImportResult(rows, millis, millis == 0 ? rows * 1000 : rows * 1000 / millis);
+    }
+}
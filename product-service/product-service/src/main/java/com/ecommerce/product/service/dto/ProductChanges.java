@@ -0,0 +1,10 @@
+package com.ecommerce.product.service.dto;
+
+import java.util.List;
+
+/**
+ * One message carrying every product that changed since the previous flush.
+ */
+public record ProductChanges(
+    List<ProductEvent> events
+) {}
@@ -0,0 +1,22 @@
+package com.ecommerce.product.service.dto;
+
+import java.time.Instant;
+
+/**
+ * Current state of a changed product. quantity is the sellable stock,
+ * shards included. For DELETED only productId and updatedAt are set.
+ * Consumers keep the event with the latest updatedAt.
+ */
+public record ProductEvent(
+    String type,
+    Long productId,
+    String name,
+    Double price,
+    Integer quantity,
+    Boolean available,
+    Instant updatedAt
+) {
+
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+}
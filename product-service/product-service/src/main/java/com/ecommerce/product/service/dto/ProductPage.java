@@ -0,0 +1,11 @@
+package com.ecommerce.product.service.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is null on the last page.
+ */
+public record ProductPage<T>(
+    List<T> items,
+    String nextCursor
+) {}
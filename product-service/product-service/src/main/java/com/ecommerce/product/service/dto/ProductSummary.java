@@ -0,0 +1,13 @@
+package com.ecommerce.product.service.dto;
+
+/**
+ * Lightweight catalog row without the heavy text fields (description, imageUrl).
+ */
+public record ProductSummary(
+    Long id,
+    String name,
+    double price,
+    int quantity,
+    int reserved,
+    boolean available
+) {}
@@ -0,0 +1,28 @@
+package com.ecommerce.product.service.dto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public record StockLine(
+    Long productId,
+    int quantity
+) {
+
+    /**
+     * Merges lines of the same product and sorts them by product id, so that
+     * concurrent multi-row updates lock product rows in the same order.
+     */
+    public static List<StockLine> mergeSorted(List<StockLine> lines) {
+        Map<Long, Integer> merged = new TreeMap<>();
+        for (StockLine line : lines) {
+            if (line.productId() == null || line.quantity() <= 0) {
+                throw new RuntimeException("Invalid stock line: " + line);
+            }
+            merged.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+        return merged.entrySet().stream()
+                .map(e -> new StockLine(e.getKey(), e.getValue()))
+                .toList();
+    }
+}
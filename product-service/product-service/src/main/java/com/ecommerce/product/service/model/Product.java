@@ -3,21 +3,49 @@ package com.ecommerce.product.service.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
+
 @Entity
+@Table(indexes = {
+    // Backs keyset pages sorted by price; id-sorted pages use the primary key
+    @Index(name = "idx_product_price_id", columnList = "price, id"),
+    // Backs incremental exports (updatedSince)
+    @Index(name = "idx_product_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
+    // Pooled sequence: Hibernate reserves 50 ids per round trip and can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String description;
     private double price;
     private int quantity;
+    // Units held by open stock holds; already deducted from quantity
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int reserved = 0;
+    // Number of stock shards when the product is in hot mode, 0 otherwise
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int shardCount = 0;
     private String imageUrl;
     @Builder.Default
     private boolean available = true;
+
+    // Bumped by JPA writes and by the SQL stock statements
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = Instant.now();
+    }
 }
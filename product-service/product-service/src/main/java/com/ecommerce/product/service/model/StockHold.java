@@ -0,0 +1,52 @@
+package com.ecommerce.product.service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_holds", indexes = {
+    // The expiry sweep walks this index instead of scanning every hold
+    @Index(name = "idx_stock_holds_status_expires_at", columnList = "status, expires_at")
+}, uniqueConstraints = {
+    // One hold per product and reference; also serves the lookups by reference
+    @UniqueConstraint(name = "uk_stock_holds_reference_product", columnNames = {"reference", "product_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockHold {
+
+    public static final String HELD = "HELD";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String RELEASED = "RELEASED";
+    public static final String EXPIRED = "EXPIRED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Caller supplied key grouping the lines of one checkout, e.g. "order-42"
+    @Column(nullable = false)
+    private String reference;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    @Column(nullable = false)
+    private String status; // HELD, CONFIRMED, RELEASED, EXPIRED
+
+    // Price when the stock was held; the checkout charges this one
+    @Column(name = "unit_price")
+    private Double unitPrice;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
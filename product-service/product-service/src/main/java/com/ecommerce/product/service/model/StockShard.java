@@ -0,0 +1,31 @@
+package com.ecommerce.product.service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One slice of a hot product's stock. Buyers of a hot product spread their
+ * row locks over the shards instead of queueing on the product row.
+ */
+@Entity
+@Table(name = "stock_shards", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_stock_shards_product_shard", columnNames = { "product_id", "shard_index" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    private int quantity;
+}
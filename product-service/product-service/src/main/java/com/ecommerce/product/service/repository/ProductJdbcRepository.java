@@ -0,0 +1,219 @@
+package com.ecommerce.product.service.repository;
+
+import com.ecommerce.product.service.dto.CatalogQuery;
+import com.ecommerce.product.service.dto.StockLine;
+import com.ecommerce.product.service.model.Product;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access for set-based stock operations that JPA cannot batch.
+ * Callers are expected to run inside a transaction.
+ */
+@Repository
+public class ProductJdbcRepository {
+
+    // Hot products (shard_count > 0) are rejected here and handled by StockShardService
+    private static final String DECREMENT_STOCK =
+            "UPDATE product SET quantity = quantity - ?, updated_at = clock_timestamp() " +
+            "WHERE id = ? AND quantity >= ? AND shard_count = 0";
+    private static final String HOLD_STOCK =
+            "UPDATE product SET quantity = quantity - ?, reserved = reserved + ?, updated_at = clock_timestamp() " +
+            "WHERE id = ? AND quantity >= ? AND shard_count = 0";
+    private static final String ADD_RESERVED =
+            "UPDATE product SET reserved = reserved + ?, updated_at = clock_timestamp() WHERE id = ?";
+    private static final String CONFIRM_HELD =
+            "UPDATE product SET reserved = reserved - ?, updated_at = clock_timestamp() WHERE id = ?";
+    private static final String RELEASE_HELD =
+            "UPDATE product SET quantity = quantity + ?, reserved = reserved - ?, updated_at = clock_timestamp() WHERE id = ?";
+
+    // Hot products are always included in incremental exports: their shard
+    // decrements do not touch the product row, so updated_at lags behind.
+    private static final String EXPORT =
+            "SELECT p.id, p.name, p.description, p.price, p.reserved, p.available, p.image_url, p.updated_at, " +
+            "CASE WHEN p.shard_count > 0 " +
+            "THEN p.quantity + (SELECT COALESCE(SUM(s.quantity), 0) FROM stock_shards s WHERE s.product_id = p.id) " +
+            "ELSE p.quantity END AS quantity " +
+            "FROM product p";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final String CURRENT_TIMESTAMP = "SELECT clock_timestamp()";
+
+    private static final String LOCK_HOLD_REFERENCE = "SELECT pg_advisory_xact_lock(hashtext(?))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Sends one guarded decrement per line as a single JDBC batch.
+     * The returned array holds the update count of each line, 0 meaning rejected.
+     */
+    public int[] decrementStock(List<StockLine> lines) {
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.quantity());
+            ps.setLong(2, line.productId());
+            ps.setInt(3, line.quantity());
+        })[0];
+    }
+
+    /**
+     * Moves stock from quantity to reserved for every line, guarded like
+     * {@link #decrementStock(List)}.
+     */
+    public int[] holdStock(List<StockLine> lines) {
+        return jdbcTemplate.batchUpdate(HOLD_STOCK, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.quantity());
+            ps.setInt(2, line.quantity());
+            ps.setLong(3, line.productId());
+            ps.setInt(4, line.quantity());
+        })[0];
+    }
+
+    /**
+     * Serializes holds for one reference until the current transaction ends, on
+     * every instance. A concurrent retry waits here and then finds the rows the
+     * first request committed.
+     */
+    public void lockHoldReference(String reference) {
+        jdbcTemplate.query(LOCK_HOLD_REFERENCE, rs -> {}, reference);
+    }
+
+    /** Records units held from a hot product's shards. */
+    public void addReserved(Long productId, int quantity) {
+        jdbcTemplate.update(ADD_RESERVED, quantity, productId);
+    }
+
+    /** Turns held units into sold units. */
+    public void confirmHeld(List<StockLine> lines) {
+        jdbcTemplate.batchUpdate(CONFIRM_HELD, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.quantity());
+            ps.setLong(2, line.productId());
+        });
+    }
+
+    /** Gives held units back to the sellable quantity. */
+    public void releaseHeld(List<StockLine> lines) {
+        jdbcTemplate.batchUpdate(RELEASE_HELD, lines, lines.size(), (ps, line) -> {
+            ps.setInt(1, line.quantity());
+            ps.setInt(2, line.quantity());
+            ps.setLong(3, line.productId());
+        });
+    }
+
+    /**
+     * Reads one keyset page plus one extra row, which tells the caller whether
+     * another page exists. Summary queries do not read the heavy text columns.
+     */
+    public List<Product> findPage(CatalogQuery query) {
+        String sortColumn = switch (query.sort()) {
+            case "price" -> "price";
+            case "name" -> "COALESCE(name, '')";
+            default -> "id";
+        };
+        String direction = query.descending() ? " DESC" : " ASC";
+
+        StringBuilder sql = new StringBuilder("SELECT id, name, price, quantity, reserved, available, shard_count");
+        if (!query.summary()) {
+            sql.append(", description, image_url");
+        }
+        sql.append(" FROM product");
+
+        List<Object> args = new ArrayList<>();
+        if (query.afterId() != null) {
+            String comparison = query.descending() ? " < " : " > ";
+            if (sortColumn.equals("id")) {
+                sql.append(" WHERE id").append(comparison).append("?");
+            } else {
+                sql.append(" WHERE (").append(sortColumn).append(", id)").append(comparison).append("(?, ?)");
+                args.add(sortColumn.equals("price") ? Double.parseDouble(query.afterValue()) : query.afterValue());
+            }
+            args.add(query.afterId());
+        }
+
+        sql.append(" ORDER BY ");
+        if (!sortColumn.equals("id")) {
+            sql.append(sortColumn).append(direction).append(", ");
+        }
+        sql.append("id").append(direction).append(" LIMIT ?");
+        args.add(query.limit() + 1);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> Product.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .price(rs.getDouble("price"))
+                .quantity(rs.getInt("quantity"))
+                .reserved(rs.getInt("reserved"))
+                .available(rs.getBoolean("available"))
+                .shardCount(rs.getInt("shard_count"))
+                .description(query.summary() ? null : rs.getString("description"))
+                .imageUrl(query.summary() ? null : rs.getString("image_url"))
+                .build(), args.toArray());
+    }
+
+    /** Id, name and description of the products after the given id, for indexing. */
+    public List<Product> findTextPage(long afterId, int limit) {
+        return jdbcTemplate.query("SELECT id, name, description FROM product WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> Product.builder()
+                        .id(rs.getLong("id"))
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .build(),
+                afterId, limit);
+    }
+
+    /** Current price of each of the given products that exists. */
+    public Map<Long, Double> findPrices(List<Long> ids) {
+        Map<Long, Double> prices = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id, price FROM product WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> prices.put(rs.getLong("id"), rs.getDouble("price")));
+        return prices;
+    }
+
+    /** Export rows for the given products, in id order. */
+    public void findExportRows(List<Long> ids, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT + " WHERE p.id = ANY(?) ORDER BY p.id");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Streams export rows in id order through a server-side cursor, handing each
+     * row to the handler as it arrives. Must run inside a transaction, which the
+     * PostgreSQL driver needs to honour the fetch size.
+     */
+    public void streamExport(Instant updatedSince, RowCallbackHandler handler) {
+        String sql = EXPORT
+                + (updatedSince != null ? " WHERE p.updated_at > ? OR p.shard_count > 0" : "")
+                + " ORDER BY p.id";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            if (updatedSince != null) {
+                ps.setTimestamp(1, Timestamp.from(updatedSince));
+            }
+            return ps;
+        }, handler);
+    }
+
+    /** The database clock, which also stamps updated_at in the stock statements. */
+    public Instant currentTimestamp() {
+        return jdbcTemplate.queryForObject(CURRENT_TIMESTAMP, Timestamp.class).toInstant();
+    }
+}
@@ -1,9 +1,46 @@
 package com.ecommerce.product.service.repository;
 
 import com.ecommerce.product.service.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Guarded decrement: the stock check and the write happen in one statement,
+     * so only the target row is locked. Returns 0 when the product is missing,
+     * does not have enough stock or is in hot mode.
+     */
+    // updated_at is the time of the write itself (clock_timestamp), not of the transaction start (now)
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE product SET quantity = quantity - :quantity, updated_at = clock_timestamp() " +
+                   "WHERE id = :id AND quantity >= :quantity AND shard_count = 0",
+           nativeQuery = true)
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /** Last-resort decrement of a hot product's own row, after its shards. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE product SET quantity = quantity - :quantity, updated_at = clock_timestamp() " +
+                   "WHERE id = :id AND quantity >= :quantity",
+           nativeQuery = true)
+    int decrementHotRow(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Queries rather than findById: they read the committed row, not the copy cached in the transaction
+    @Query("SELECT p.shardCount FROM Product p WHERE p.id = :id")
+    Optional<Integer> findShardCount(@Param("id") Long id);
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findQuantity(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> lockById(@Param("id") Long id);
 }
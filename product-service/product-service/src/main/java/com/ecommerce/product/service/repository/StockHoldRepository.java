@@ -0,0 +1,33 @@
+package com.ecommerce.product.service.repository;
+
+import com.ecommerce.product.service.model.StockHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Long> {
+
+    List<StockHold> findByReference(String reference);
+
+    List<StockHold> findByStatusAndExpiresAtBeforeOrderByExpiresAt(String status, Instant now, Pageable pageable);
+
+    /**
+     * Moves a hold out of HELD. Returns 0 when another confirm, release or sweep
+     * (possibly on another instance) got there first.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = :status WHERE h.id = :id AND h.status = 'HELD'")
+    int closeHold(@Param("id") Long id, @Param("status") String status);
+
+    /** Confirms a hold that expired first; 0 when another confirm got there first. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockHold h SET h.status = 'CONFIRMED' WHERE h.id = :id AND h.status = 'EXPIRED'")
+    int confirmExpired(@Param("id") Long id);
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.product.service.repository;
+
+import com.ecommerce.product.service.model.StockShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockShardRepository extends JpaRepository<StockShard, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockShard s WHERE s.productId = :productId ORDER BY s.shardIndex")
+    List<StockShard> lockByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM StockShard s WHERE s.productId = :productId")
+    int sumByProductId(@Param("productId") Long productId);
+
+    /** Rows of [productId, total quantity] for the given hot products. */
+    @Query("SELECT s.productId, SUM(s.quantity) FROM StockShard s WHERE s.productId IN :productIds GROUP BY s.productId")
+    List<Object[]> sumByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE StockShard s SET s.quantity = s.quantity - :quantity " +
+           "WHERE s.productId = :productId AND s.shardIndex = :shardIndex AND s.quantity >= :quantity")
+    int decrementShard(@Param("productId") Long productId,
+                       @Param("shardIndex") int shardIndex,
+                       @Param("quantity") int quantity);
+}
@@ -0,0 +1,318 @@
+package com.ecommerce.product.service.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * Terms are kept in a sorted set, so prefix matches are a range scan. The
+ * best completions of a prefix are remembered, so a short prefix over a large
+ * vocabulary is scanned once rather than on every search; adding or dropping
+ * a term, or changing how many products use it, forgets the remembered
+ * completions of its prefixes. Each posting carries a weight (name hits count
+ * more than description hits).
+ * Postings are changed per term under the lock of their map bin, which also
+ * adds and drops the term itself: a term with no products left disappears.
+ * Updates for a product are serialized on its entry in the document map, so
+ * indexing can run on many threads at once.
+ *
+ * A rebuild fills a fresh index next to the live one and swaps it in when
+ * done; searches keep using the old one meanwhile. Writes during a rebuild go
+ * to both, and the rebuild does not overwrite a product written meanwhile.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int EXACT_BOOST = 2;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_CACHED_PREFIXES = 10_000;
+
+    private record Completion(String term, int frequency) {}
+
+    // Closest completions first: shortest term, then the one in most products
+    private static final Comparator<Completion> PREFIX_RANK = Comparator.comparingInt((Completion c) -> c.term().length())
+            .thenComparing(Completion::frequency, Comparator.reverseOrder())
+            .thenComparing(Completion::term);
+
+    private volatile Terms live = new Terms();
+    private volatile Terms building;
+    // Writes share it; swapping in a rebuilt index takes it exclusively
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    public void index(Long id, String name, String description) {
+        Map<String, Integer> terms = weigh(name, description);
+        swapLock.readLock().lock();
+        try {
+            live.put(id, terms);
+            Terms next = building;
+            if (next != null) {
+                next.touched.add(id);
+                next.put(id, terms);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        swapLock.readLock().lock();
+        try {
+            live.remove(id);
+            Terms next = building;
+            if (next != null) {
+                next.touched.add(id);
+                next.remove(id);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return live.documents.size();
+    }
+
+    /** Starts filling a fresh index; see {@link #indexLoaded} and {@link #finishRebuild}. */
+    public void startRebuild() {
+        building = new Terms();
+    }
+
+    /** Indexes a product read for the rebuild, unless it was written or removed since the rebuild started. */
+    public void indexLoaded(Long id, String name, String description) {
+        Terms next = building;
+        if (next == null) {
+            throw new IllegalStateException("No search index rebuild in progress");
+        }
+        next.putUnlessTouched(id, weigh(name, description));
+    }
+
+    /** Makes the rebuilt index the live one. */
+    public void finishRebuild() {
+        swapLock.writeLock().lock();
+        try {
+            if (building != null) {
+                live = building;
+                building = null;
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a failed rebuild; the live index stays as it was. */
+    public void abortRebuild() {
+        building = null;
+    }
+
+    /**
+     * Ids of the products matching every query term, best match first. A term
+     * matches exactly or, from {@value #MIN_PREFIX_LENGTH} characters on, as a
+     * prefix; exact matches rank higher. A prefix expands to at most
+     * {@value #MAX_PREFIX_TERMS} terms, the shortest and most common ones.
+     */
+    public List<Long> search(String query, int limit) {
+        Terms index = live;
+        List<Map<Long, Integer>> perTerm = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Map<Long, Integer> matches = index.matches(term);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            perTerm.add(matches);
+        }
+        if (perTerm.isEmpty()) {
+            return List.of();
+        }
+
+        // Intersect starting from the most selective term
+        perTerm.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Integer> scores = new HashMap<>(perTerm.get(0));
+        for (int i = 1; i < perTerm.size() && !scores.isEmpty(); i++) {
+            Map<Long, Integer> matches = perTerm.get(i);
+            scores.keySet().retainAll(matches.keySet());
+            scores.replaceAll((id, score) -> score + matches.get(id));
+        }
+
+        Comparator<Map.Entry<Long, Integer>> byRank = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Integer>> top = new PriorityQueue<>(byRank);
+        for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Long> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add(0, top.poll().getKey());
+        }
+        return ids;
+    }
+
+    /** Number of distinct terms in the live index. */
+    int termCount() {
+        return live.postings.size();
+    }
+
+    private static Map<String, Integer> weigh(String name, String description) {
+        Map<String, Integer> terms = new HashMap<>();
+        for (String term : tokenize(name)) {
+            terms.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(description)) {
+            terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        return terms;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class Terms {
+
+        private final ConcurrentHashMap<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListSet<String> sortedTerms = new ConcurrentSkipListSet<>();
+        private final ConcurrentHashMap<Long, Map<String, Integer>> documents = new ConcurrentHashMap<>();
+        // Products written or removed while this index was being rebuilt
+        private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+        // Best completions per prefix, best first
+        private final Cache<String, List<String>> completions = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_PREFIXES)
+                .build();
+
+        void put(Long id, Map<String, Integer> terms) {
+            documents.compute(id, (key, previous) -> replace(id, previous, terms));
+        }
+
+        void putUnlessTouched(Long id, Map<String, Integer> terms) {
+            documents.compute(id, (key, previous) -> touched.contains(id) ? previous : replace(id, previous, terms));
+        }
+
+        void remove(Long id) {
+            documents.computeIfPresent(id, (key, previous) -> {
+                previous.keySet().forEach(term -> removePosting(term, id));
+                return null;
+            });
+        }
+
+        private Map<String, Integer> replace(Long id, Map<String, Integer> previous, Map<String, Integer> terms) {
+            if (previous != null) {
+                previous.keySet().stream()
+                        .filter(term -> !terms.containsKey(term))
+                        .forEach(term -> removePosting(term, id));
+            }
+            terms.forEach((term, weight) -> addPosting(term, id, weight));
+            return terms;
+        }
+
+        private void addPosting(String term, Long id, int weight) {
+            postings.compute(term, (t, docs) -> {
+                if (docs == null) {
+                    docs = new ConcurrentHashMap<>();
+                    sortedTerms.add(term);
+                }
+                if (docs.put(id, weight) == null) {
+                    forgetCompletions(term);
+                }
+                return docs;
+            });
+        }
+
+        private void removePosting(String term, Long id) {
+            postings.computeIfPresent(term, (t, docs) -> {
+                if (docs.remove(id) != null) {
+                    forgetCompletions(term);
+                }
+                if (docs.isEmpty()) {
+                    sortedTerms.remove(term);
+                    return null;
+                }
+                return docs;
+            });
+        }
+
+        Map<Long, Integer> matches(String term) {
+            Map<Long, Integer> result = new HashMap<>();
+            Map<Long, Integer> exact = postings.get(term);
+            if (exact != null) {
+                exact.forEach((id, weight) -> result.put(id, weight * EXACT_BOOST));
+            }
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                for (Map<Long, Integer> docs : prefixTerms(term)) {
+                    docs.forEach((id, weight) -> result.merge(id, weight, Math::max));
+                }
+            }
+            return result;
+        }
+
+        // The term's rank changed: its prefixes must pick their completions again
+        private void forgetCompletions(String term) {
+            for (int length = MIN_PREFIX_LENGTH; length < term.length(); length++) {
+                completions.invalidate(term.substring(0, length));
+            }
+        }
+
+        // The MAX_PREFIX_TERMS best-ranked terms starting with prefix, excluding the prefix itself.
+        // A concurrent change to a completion waits for the load and then drops its result.
+        private List<Map<Long, Integer>> prefixTerms(String prefix) {
+            List<Map<Long, Integer>> result = new ArrayList<>();
+            for (String term : completions.get(prefix, this::rankCompletions)) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    result.add(docs);
+                }
+            }
+            return result;
+        }
+
+        private List<String> rankCompletions(String prefix) {
+            PriorityQueue<Completion> best = new PriorityQueue<>(PREFIX_RANK.reversed());
+            for (String term : sortedTerms.subSet(prefix, false, prefix + Character.MAX_VALUE, false)) {
+                Map<Long, Integer> docs = postings.get(term);
+                if (docs == null) {
+                    continue;
+                }
+                best.offer(new Completion(term, docs.size()));
+                if (best.size() > MAX_PREFIX_TERMS) {
+                    best.poll();
+                }
+            }
+            List<String> terms = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                terms.add(0, best.poll().term());
+            }
+            return terms;
+        }
+    }
+}
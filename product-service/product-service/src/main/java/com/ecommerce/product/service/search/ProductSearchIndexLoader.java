@@ -0,0 +1,73 @@
+package com.ecommerce.product.service.search;
+
+import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Rebuilds the search index from the database at startup. Pages are read by id
+ * on the calling thread and indexed on the common fork-join pool, so
+ * tokenization uses every core while at most a few pages sit in memory.
+ * The pages go into a fresh index that replaces the live one only when
+ * complete, so searches never see a half-built index.
+ */
+@Component
+public class ProductSearchIndexLoader {
+
+    private final ProductSearchIndex searchIndex;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final int pageSize;
+
+    public ProductSearchIndexLoader(ProductSearchIndex searchIndex,
+                                    ProductJdbcRepository productJdbcRepository,
+                                    @Value("${product.search.rebuild-page-size:10000}") int pageSize) {
+        this.searchIndex = searchIndex;
+        this.productJdbcRepository = productJdbcRepository;
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        searchIndex.startRebuild();
+        try {
+            load();
+        } catch (RuntimeException e) {
+            searchIndex.abortRebuild();
+            throw e;
+        }
+        searchIndex.finishRebuild();
+        System.out.println("[ProductSearchIndex] Indexed " + searchIndex.size() + " products in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private void load() {
+        Semaphore inFlight = new Semaphore(Runtime.getRuntime().availableProcessors() * 2);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        long afterId = 0;
+        List<Product> page;
+        do {
+            page = productJdbcRepository.findTextPage(afterId, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+
+            List<Product> batch = page;
+            inFlight.acquireUninterruptibly();
+            tasks.add(CompletableFuture
+                    .runAsync(() -> batch.forEach(p -> searchIndex.indexLoaded(p.getId(), p.getName(), p.getDescription())))
+                    .whenComplete((ignored, error) -> inFlight.release()));
+        } while (page.size() == pageSize);
+
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    }
+}
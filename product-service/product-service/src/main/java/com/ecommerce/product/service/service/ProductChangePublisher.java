@@ -0,0 +1,98 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.config.RabbitMQConfig;
+import com.ecommerce.product.service.dto.ProductChanges;
+import com.ecommerce.product.service.dto.ProductEvent;
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Publishes product changes to other services. Writers only mark the product
+ * id as changed (after commit); a scheduled flush then reads the current rows
+ * of all marked products in one query and sends them in one message. A product
+ * whose stock moves a hundred times between two flushes is sent once, with its
+ * latest state. Ids not found any more are sent as DELETED.
+ * Delivery is best effort: subscribers resync from the export endpoint.
+ */
+@Component
+public class ProductChangePublisher {
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final ProductJdbcRepository productJdbcRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final int batchSize;
+
+    public ProductChangePublisher(ProductJdbcRepository productJdbcRepository,
+                                  RabbitTemplate rabbitTemplate,
+                                  @Value("${product.events.batch-size:500}") int batchSize) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void changed(Long productId) {
+        if (productId != null) {
+            AfterCommit.run(() -> changed.add(productId));
+        }
+    }
+
+    public void changed(Iterable<Long> productIds) {
+        productIds.forEach(this::changed);
+    }
+
+    @Scheduled(fixedDelayString = "${product.events.flush-interval-ms:200}")
+    public void flush() {
+        while (!changed.isEmpty()) {
+            List<Long> ids = drain();
+            try {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.PRODUCT_EVENTS_EXCHANGE, "", new ProductChanges(events(ids)));
+            } catch (Exception e) {
+                // Marked again; they go out with the next flush
+                changed.addAll(ids);
+                System.err.println("[ProductChangePublisher] Failed to publish " + ids.size() + " product changes: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private List<Long> drain() {
+        List<Long> ids = new ArrayList<>(batchSize);
+        Iterator<Long> it = changed.iterator();
+        while (it.hasNext() && ids.size() < batchSize) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    private List<ProductEvent> events(List<Long> ids) {
+        List<ProductEvent> events = new ArrayList<>(ids.size());
+        Set<Long> found = new HashSet<>();
+        productJdbcRepository.findExportRows(ids, rs -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            events.add(new ProductEvent(ProductEvent.UPDATED, rs.getLong("id"), rs.getString("name"),
+                    rs.getDouble("price"), rs.getInt("quantity"), rs.getBoolean("available"),
+                    updatedAt != null ? updatedAt.toInstant() : Instant.now()));
+            found.add(rs.getLong("id"));
+        });
+        Instant now = Instant.now();
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                events.add(new ProductEvent(ProductEvent.DELETED, id, null, null, null, null, now));
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Streams the catalog row by row straight from a database cursor to the
+ * response, so an export never holds more than one fetch batch in memory.
+ *
+ * Incremental exports: updated_at is stamped when a row is written, which can
+ * be well before the writing transaction commits. A row committed late can
+ * therefore carry a time a consumer has already synced past. An incremental
+ * export also returns rows changed up to product.export.overlap-seconds
+ * before updatedSince, so consumers see such rows (and some rows twice:
+ * apply them by updatedAt). The next updatedSince should be the watermark of
+ * the previous export, taken from the database clock before it ran.
+ */
+@Service
+public class ProductExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final String CSV_HEADER =
+            "id,name,description,price,quantity,reserved,available,imageUrl,updatedAt";
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration overlap;
+
+    public ProductExportService(ProductJdbcRepository productJdbcRepository, ObjectMapper objectMapper,
+                                @Value("${product.export.overlap-seconds:60}") long overlapSeconds) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.overlap = Duration.ofSeconds(overlapSeconds);
+    }
+
+    /** Where the next incremental export should start, when taken before this one runs. */
+    public Instant watermark() {
+        return productJdbcRepository.currentTimestamp();
+    }
+
+    public static String checkFormat(String format) {
+        String normalized = format == null ? NDJSON : format.toLowerCase();
+        if (!NDJSON.equals(normalized) && !CSV.equals(normalized)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format);
+        }
+        return normalized;
+    }
+
+    /**
+     * Writes every product (or only those changed after updatedSince minus the
+     * overlap) to out. The transaction keeps the PostgreSQL cursor open while
+     * rows are fetched.
+     */
+    @Transactional(readOnly = true)
+    public void export(OutputStream out, String format, Instant updatedSince) throws IOException {
+        if (updatedSince != null) {
+            updatedSince = updatedSince.minus(overlap);
+        }
+        if (CSV.equals(checkFormat(format))) {
+            exportCsv(out, updatedSince);
+        } else {
+            exportNdjson(out, updatedSince);
+        }
+    }
+
+    private void exportNdjson(OutputStream out, Instant updatedSince) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            // Keeps the generator from closing the response stream we don't own
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setPrettyPrinter(new MinimalPrettyPrinter(""));
+            productJdbcRepository.streamExport(updatedSince, rs -> {
+                try {
+                    writeJson(json, rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeJson(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong("id"));
+        json.writeStringField("name", rs.getString("name"));
+        json.writeStringField("description", rs.getString("description"));
+        json.writeNumberField("price", rs.getDouble("price"));
+        json.writeNumberField("quantity", rs.getInt("quantity"));
+        json.writeNumberField("reserved", rs.getInt("reserved"));
+        json.writeBooleanField("available", rs.getBoolean("available"));
+        json.writeStringField("imageUrl", rs.getString("image_url"));
+        json.writeStringField("updatedAt", instantString(rs.getTimestamp("updated_at")));
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void exportCsv(OutputStream out, Instant updatedSince) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        productJdbcRepository.streamExport(updatedSince, rs -> {
+            try {
+                writer.write(Long.toString(rs.getLong("id")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("name")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("description")));
+                writer.write(',');
+                writer.write(Double.toString(rs.getDouble("price")));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("quantity")));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("reserved")));
+                writer.write(',');
+                writer.write(Boolean.toString(rs.getBoolean("available")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("image_url")));
+                writer.write(',');
+                writer.write(csvField(instantString(rs.getTimestamp("updated_at"))));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String instantString(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant().toString();
+    }
+}
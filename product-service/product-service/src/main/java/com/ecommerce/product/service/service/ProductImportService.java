@@ -0,0 +1,272 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.dto.ImportResult;
+import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.search.ProductSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk product import from CSV (with a header row, as written by the export)
+ * or NDJSON. Rows are parsed one at a time and persisted in chunks, each in its
+ * own transaction, so memory stays bounded and Hibernate can send the inserts
+ * as JDBC batches. A failing row stops the import; earlier chunks stay committed.
+ */
+@Service
+public class ProductImportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final long PROGRESS_EVERY = 100_000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogCache catalogCache;
+    private final ProductChangePublisher productEvents;
+    private final int chunkSize;
+
+    public ProductImportService(EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                ProductSearchIndex searchIndex,
+                                ProductCatalogCache catalogCache,
+                                ProductChangePublisher productEvents,
+                                @Value("${product.import.chunk-size:5000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.catalogCache = catalogCache;
+        this.productEvents = productEvents;
+        this.chunkSize = chunkSize;
+    }
+
+    public static String checkFormat(String format) {
+        String normalized = format == null ? "" : format.toLowerCase(Locale.ROOT);
+        if (!NDJSON.equals(normalized) && !CSV.equals(normalized)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown import format: " + format);
+        }
+        return normalized;
+    }
+
+    public ImportResult importProducts(InputStream in, String format) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        try (RowSource source = CSV.equals(checkFormat(format)) ? new CsvSource(reader) : new NdjsonSource(reader)) {
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            Product product;
+            while ((product = source.next()) != null) {
+                chunk.add(validate(product, rows + chunk.size() + 1));
+                if (chunk.size() == chunkSize) {
+                    rows += persist(chunk);
+                    chunk.clear();
+                    if (rows % PROGRESS_EVERY < chunkSize) {
+                        System.out.println("[ProductImport] " + rows + " rows imported");
+                    }
+                }
+            }
+            rows += persist(chunk);
+        } finally {
+            // Drops cached listings once instead of once per chunk
+            catalogCache.evict(null);
+        }
+
+        ImportResult result = ImportResult.of(rows, System.currentTimeMillis() - start);
+        System.out.println("[ProductImport] Imported " + result.rows() + " products in " + result.millis()
+                + " ms (" + result.rowsPerSecond() + " rows/s)");
+        return result;
+    }
+
+    private int persist(List<Product> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            // Keeps the persistence context from growing across chunks
+            entityManager.clear();
+        });
+        chunk.forEach(p -> {
+            searchIndex.index(p.getId(), p.getName(), p.getDescription());
+            productEvents.changed(p.getId());
+        });
+        return chunk.size();
+    }
+
+    private static Product validate(Product product, long row) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Row " + row + ": name is required");
+        }
+        if (product.getPrice() < 0 || product.getQuantity() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Row " + row + ": price and quantity must not be negative");
+        }
+        // Ids, holds and hot mode are never imported
+        return product.toBuilder().id(null).reserved(0).shardCount(0).updatedAt(null).build();
+    }
+
+    private interface RowSource extends AutoCloseable {
+        /** Next product, or null at the end of the input. */
+        Product next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private class NdjsonSource implements RowSource {
+
+        private final MappingIterator<Product> rows;
+
+        NdjsonSource(Reader reader) throws IOException {
+            this.rows = objectMapper.readerFor(Product.class).readValues(reader);
+        }
+
+        @Override
+        public Product next() throws IOException {
+            try {
+                return rows.hasNextValue() ? rows.nextValue() : null;
+            } catch (JsonProcessingException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid NDJSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+
+    private static class CsvSource implements RowSource {
+
+        private final Reader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private final StringBuilder field = new StringBuilder();
+        private long row = 1;
+
+        CsvSource(Reader reader) throws IOException {
+            this.reader = reader;
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header row is missing");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("name")) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header has no name column");
+            }
+        }
+
+        @Override
+        public Product next() throws IOException {
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            row++;
+            try {
+                String available = value(record, "available");
+                return Product.builder()
+                        .name(value(record, "name"))
+                        .description(value(record, "description"))
+                        .price(parseDouble(value(record, "price")))
+                        .quantity(parseInt(value(record, "quantity")))
+                        .imageUrl(value(record, "imageurl"))
+                        .available(available == null || Boolean.parseBoolean(available))
+                        .build();
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV row " + row + ": " + e.getMessage());
+            }
+        }
+
+        private String value(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        private static double parseDouble(String value) {
+            return value == null ? 0 : Double.parseDouble(value.trim());
+        }
+
+        private static int parseInt(String value) {
+            return value == null ? 0 : Integer.parseInt(value.trim());
+        }
+
+        /**
+         * Reads one RFC 4180 record: quoted fields may hold commas, newlines
+         * and doubled quotes. Returns null at the end of the input.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            while (c == '\r' || c == '\n') {
+                c = reader.read();
+            }
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> record = new ArrayList<>();
+            boolean quoted = false;
+            field.setLength(0);
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unterminated quoted CSV field");
+                    }
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    record.add(field.toString());
+                    return record;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
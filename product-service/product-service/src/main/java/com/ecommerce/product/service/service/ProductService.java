@@ -1,57 +1,212 @@
 package com.ecommerce.product.service.service;
 
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.dto.CatalogQuery;
+import com.ecommerce.product.service.dto.ProductPage;
+import com.ecommerce.product.service.dto.ProductSummary;
+import com.ecommerce.product.service.dto.StockLine;
 import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
 import com.ecommerce.product.service.repository.ProductRepository;
+import com.ecommerce.product.service.search.ProductSearchIndex;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final StockShardService stockShardService;
+    private final ProductCatalogCache catalogCache;
+    private final ProductChangePublisher productEvents;
+    private final ProductSearchIndex searchIndex;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductJdbcRepository productJdbcRepository,
+                          StockShardService stockShardService,
+                          ProductCatalogCache catalogCache,
+                          ProductChangePublisher productEvents,
+                          ProductSearchIndex searchIndex) {
         this.productRepository = productRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.stockShardService = stockShardService;
+        this.catalogCache = catalogCache;
+        this.productEvents = productEvents;
+        this.searchIndex = searchIndex;
     }
 
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return withShardTotals(productRepository.findAll());
+    }
+
+    /**
+     * Keyset-paginated listing. Full view returns products, summary view
+     * returns {@link ProductSummary} rows.
+     */
+    public ProductPage<?> getProductPage(CatalogQuery query) {
+        List<Product> rows = productJdbcRepository.findPage(query);
+        boolean hasMore = rows.size() > query.limit();
+        if (hasMore) {
+            rows = rows.subList(0, query.limit());
+        }
+        rows = withShardTotals(rows);
+
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = rows.get(rows.size() - 1);
+            String sortValue = switch (query.sort()) {
+                case "price" -> Double.toString(last.getPrice());
+                case "name" -> last.getName() == null ? "" : last.getName();
+                default -> "";
+            };
+            nextCursor = query.cursorAfter(last.getId(), sortValue);
+        }
+
+        if (!query.summary()) {
+            return new ProductPage<>(rows, nextCursor);
+        }
+        List<ProductSummary> summaries = rows.stream()
+                .map(p -> new ProductSummary(p.getId(), p.getName(), p.getPrice(),
+                        p.getQuantity(), p.getReserved(), p.isAvailable()))
+                .toList();
+        return new ProductPage<>(summaries, nextCursor);
+    }
+
+    /**
+     * Products for a set of ids in one query, e.g. all lines of a cart.
+     * Unknown ids are left out.
+     */
+    public List<Product> getProductsByIds(List<Long> ids) {
+        return withShardTotals(productRepository.findAllById(ids));
+    }
+
+    /**
+     * Full-text search over name and description, best match first.
+     */
+    public List<Product> searchProducts(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> byId = withShardTotals(productRepository.findAllById(ids)).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private List<Product> withShardTotals(List<Product> products) {
+        List<Long> hotIds = products.stream()
+                .filter(p -> p.getShardCount() > 0)
+                .map(Product::getId)
+                .toList();
+        if (hotIds.isEmpty()) {
+            return products;
+        }
+
+        Map<Long, Integer> shardTotals = stockShardService.shardTotals(hotIds);
+        return products.stream()
+                .map(p -> p.getShardCount() > 0
+                        ? p.toBuilder().quantity(p.getQuantity() + shardTotals.getOrDefault(p.getId(), 0)).build()
+                        : p)
+                .toList();
     }
 
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productRepository.findById(id)
+                .map(p -> p.getShardCount() > 0
+                        ? p.toBuilder().quantity(stockShardService.totalQuantity(p)).build()
+                        : p);
     }
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        catalogCache.evict(saved.getId());
+        productEvents.changed(saved.getId());
+        searchIndex.index(saved.getId(), saved.getName(), saved.getDescription());
+        return saved;
     }
 
+    @Transactional
     public Optional<Product> updateProduct(Long id, Product updatedProduct) {
+        catalogCache.evict(id);
+        productEvents.changed(id);
         return productRepository.findById(id).map(existing -> {
+            AfterCommit.run(() -> searchIndex.index(id, updatedProduct.getName(), updatedProduct.getDescription()));
             existing.setName(updatedProduct.getName());
             existing.setDescription(updatedProduct.getDescription());
             existing.setPrice(updatedProduct.getPrice());
-            existing.setQuantity(updatedProduct.getQuantity());
             existing.setImageUrl(updatedProduct.getImageUrl());
             existing.setAvailable(updatedProduct.isAvailable());
+            if (existing.getShardCount() > 0) {
+                productRepository.save(existing);
+                // Hot product: spread the new stock level over its shards
+                return stockShardService.setQuantity(id, updatedProduct.getQuantity());
+            }
+            existing.setQuantity(updatedProduct.getQuantity());
             return productRepository.save(existing);
         });
     }
 
-    public synchronized void reduceStock(Long id, int quantity) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        if (product.getQuantity() < quantity) {
+    /**
+     * Turns hot mode on (shards > 0) or off (shards == 0) for a product.
+     */
+    public Product setHotMode(Long id, int shards) {
+        return stockShardService.setShards(id, shards);
+    }
+
+    @Transactional
+    public void reduceStock(Long id, int quantity) {
+        if (quantity <= 0) {
+            throw new RuntimeException("Quantity must be positive");
+        }
+
+        // No JVM lock: the database serializes writers per product row, which also
+        // holds when several product-service instances run side by side.
+        if (productRepository.decrementStock(id, quantity) == 0
+                && !stockShardService.tryDecrementHot(id, quantity)) {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found"));
             throw new RuntimeException("Insufficient stock for product: " + product.getName());
         }
-        
-        product.setQuantity(product.getQuantity() - quantity);
-        productRepository.save(product);
+        catalogCache.evictStock(id);
+        productEvents.changed(id);
+    }
+
+    /**
+     * Reserves every line of a cart in one transaction: either all lines are
+     * decremented or the whole reservation is rolled back.
+     */
+    @Transactional
+    public void reserveStock(List<StockLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("No stock lines to reserve");
+        }
+
+        List<StockLine> sorted = StockLine.mergeSorted(lines);
+        int[] updated = productJdbcRepository.decrementStock(sorted);
+        for (int i = 0; i < updated.length; i++) {
+            StockLine line = sorted.get(i);
+            if (updated[i] == 0 && !stockShardService.tryDecrementHot(line.productId(), line.quantity())) {
+                throw new RuntimeException("Insufficient stock for product: " + line.productId());
+            }
+            catalogCache.evictStock(line.productId());
+            productEvents.changed(line.productId());
+        }
     }
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        catalogCache.evict(id);
+        productEvents.changed(id);
+        searchIndex.remove(id);
     }
 }
@@ -0,0 +1,204 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.dto.StockLine;
+import com.ecommerce.product.service.model.StockHold;
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
+import com.ecommerce.product.service.repository.StockHoldRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time-limited stock holds. Holding moves units from quantity to reserved,
+ * confirming drops them from reserved, releasing or expiring puts them back.
+ * A paid order may confirm after its hold expired: the units are then taken
+ * from the sellable quantity again, or the confirm fails with 409 if they are
+ * gone. Callers keep retrying a confirm until it succeeds or is refused.
+ * Each hold records the unit price at hold time; checkout charges that price.
+ */
+@Service
+public class StockHoldService {
+
+    private final StockHoldRepository holdRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final StockShardService stockShardService;
+    private final ProductCatalogCache catalogCache;
+    private final ProductChangePublisher productEvents;
+    private final Duration defaultTtl;
+
+    public StockHoldService(StockHoldRepository holdRepository,
+                            ProductJdbcRepository productJdbcRepository,
+                            StockShardService stockShardService,
+                            ProductCatalogCache catalogCache,
+                            ProductChangePublisher productEvents,
+                            @Value("${stock.holds.default-ttl-seconds:900}") long defaultTtlSeconds) {
+        this.holdRepository = holdRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.stockShardService = stockShardService;
+        this.catalogCache = catalogCache;
+        this.productEvents = productEvents;
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+    }
+
+    @Transactional
+    public List<StockHold> hold(String reference, List<StockLine> lines, Long ttlSeconds) {
+        if (reference == null || reference.isBlank()) {
+            throw new RuntimeException("Hold reference is required");
+        }
+        if (lines == null || lines.isEmpty()) {
+            throw new RuntimeException("No stock lines to hold");
+        }
+
+        // A retried request for the same reference gets the existing holds back. The lock makes
+        // concurrent retries take turns; the unique constraint backs it up.
+        productJdbcRepository.lockHoldReference(reference);
+        List<StockHold> existing = holdRepository.findByReference(reference);
+        if (!existing.isEmpty()) {
+            for (StockHold hold : existing) {
+                if (!StockHold.HELD.equals(hold.getStatus()) && !StockHold.CONFIRMED.equals(hold.getStatus())) {
+                    // The units went back on sale; reusing the reference would report stock nobody holds
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Stock hold " + reference + " is already " + hold.getStatus());
+                }
+            }
+            return existing;
+        }
+
+        List<StockLine> sorted = StockLine.mergeSorted(lines);
+        int[] updated = productJdbcRepository.holdStock(sorted);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                StockLine line = sorted.get(i);
+                if (!stockShardService.tryDecrementHot(line.productId(), line.quantity())) {
+                    throw new RuntimeException("Insufficient stock for product: " + line.productId());
+                }
+                productJdbcRepository.addReserved(line.productId(), line.quantity());
+            }
+        }
+        sorted.forEach(line -> {
+            catalogCache.evictStock(line.productId());
+            productEvents.changed(line.productId());
+        });
+
+        // Read after the decrement, whose row lock keeps a regular product's price fixed until commit
+        Map<Long, Double> prices = productJdbcRepository.findPrices(sorted.stream().map(StockLine::productId).toList());
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttlSeconds != null && ttlSeconds > 0 ? Duration.ofSeconds(ttlSeconds) : defaultTtl);
+        List<StockHold> holds = sorted.stream()
+                .map(line -> StockHold.builder()
+                        .reference(reference)
+                        .productId(line.productId())
+                        .quantity(line.quantity())
+                        .unitPrice(prices.get(line.productId()))
+                        .status(StockHold.HELD)
+                        .expiresAt(expiresAt)
+                        .createdAt(now)
+                        .build())
+                .toList();
+        return holdRepository.saveAll(holds);
+    }
+
+    @Transactional
+    public List<StockHold> confirm(String reference) {
+        List<StockHold> holds = holdRepository.findByReference(reference);
+        if (holds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Stock hold not found: " + reference);
+        }
+
+        List<StockLine> confirmed = close(holds, StockHold.CONFIRMED);
+        if (!confirmed.isEmpty()) {
+            productJdbcRepository.confirmHeld(confirmed);
+            confirmed.forEach(line -> catalogCache.evictStock(line.productId()));
+        }
+        retakeExpired(reference, holds);
+
+        // Everything must end up confirmed; a released hold no longer backs this checkout
+        for (StockHold hold : holds) {
+            if (!StockHold.CONFIRMED.equals(hold.getStatus())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Stock hold " + reference + " is " + hold.getStatus());
+            }
+        }
+        return holds;
+    }
+
+    // Expired units went back on sale: take them again if they are still there, otherwise roll it all back
+    private void retakeExpired(String reference, List<StockHold> holds) {
+        List<StockLine> retaken = new ArrayList<>();
+        for (StockHold hold : holds) {
+            if (StockHold.EXPIRED.equals(hold.getStatus()) && holdRepository.confirmExpired(hold.getId()) == 1) {
+                hold.setStatus(StockHold.CONFIRMED);
+                retaken.add(new StockLine(hold.getProductId(), hold.getQuantity()));
+            }
+        }
+        if (retaken.isEmpty()) {
+            return;
+        }
+
+        List<StockLine> sorted = StockLine.mergeSorted(retaken);
+        int[] updated = productJdbcRepository.decrementStock(sorted);
+        for (int i = 0; i < updated.length; i++) {
+            StockLine line = sorted.get(i);
+            if (updated[i] == 0 && !stockShardService.tryDecrementHot(line.productId(), line.quantity())) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Stock hold " + reference
+                        + " expired and product " + line.productId() + " no longer has the stock");
+            }
+        }
+        sorted.forEach(line -> {
+            catalogCache.evictStock(line.productId());
+            productEvents.changed(line.productId());
+        });
+        System.out.println("[StockHoldService] Confirmed expired hold " + reference + " from remaining stock: " + sorted);
+    }
+
+    @Transactional
+    public void release(String reference) {
+        List<StockLine> released = close(holdRepository.findByReference(reference), StockHold.RELEASED);
+        if (!released.isEmpty()) {
+            productJdbcRepository.releaseHeld(released);
+            released.forEach(line -> {
+                catalogCache.evictStock(line.productId());
+                productEvents.changed(line.productId());
+            });
+        }
+    }
+
+    /**
+     * Expires one batch of overdue holds, oldest first. Returns how many holds
+     * were expired so the sweeper can keep draining while batches are full.
+     */
+    @Transactional
+    public int expireOverdue(int batchSize) {
+        List<StockHold> overdue = holdRepository.findByStatusAndExpiresAtBeforeOrderByExpiresAt(
+                StockHold.HELD, Instant.now(), PageRequest.of(0, batchSize));
+        List<StockLine> expired = close(overdue, StockHold.EXPIRED);
+        if (!expired.isEmpty()) {
+            productJdbcRepository.releaseHeld(expired);
+            expired.forEach(line -> {
+                catalogCache.evictStock(line.productId());
+                productEvents.changed(line.productId());
+            });
+        }
+        return overdue.size();
+    }
+
+    private List<StockLine> close(List<StockHold> holds, String status) {
+        List<StockLine> closed = new ArrayList<>();
+        for (StockHold hold : holds) {
+            if (StockHold.HELD.equals(hold.getStatus()) && holdRepository.closeHold(hold.getId(), status) == 1) {
+                hold.setStatus(status);
+                closed.add(new StockLine(hold.getProductId(), hold.getQuantity()));
+            }
+        }
+        return closed.isEmpty() ? closed : StockLine.mergeSorted(closed);
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.product.service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockHoldSweeper {
+
+    private final StockHoldService stockHoldService;
+    private final int batchSize;
+
+    public StockHoldSweeper(StockHoldService stockHoldService,
+                            @Value("${stock.holds.sweep-batch-size:500}") int batchSize) {
+        this.stockHoldService = stockHoldService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.holds.sweep-interval-ms:5000}")
+    public void sweep() {
+        int expired = 0;
+        int batch;
+        do {
+            batch = stockHoldService.expireOverdue(batchSize);
+            expired += batch;
+        } while (batch == batchSize);
+
+        if (expired > 0) {
+            System.out.println("[StockHoldSweeper] Released " + expired + " expired stock holds");
+        }
+    }
+}
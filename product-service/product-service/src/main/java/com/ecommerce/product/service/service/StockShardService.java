@@ -0,0 +1,155 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.model.StockShard;
+import com.ecommerce.product.service.repository.ProductRepository;
+import com.ecommerce.product.service.repository.StockShardRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in "hot product" mode. The stock of a hot product lives in N shard rows
+ * (plus whatever was given back to the product row by released holds); its
+ * sellable quantity is the sum of both. Changing the layout or the quantity
+ * rewrites the shard rows in place, so a decrement waiting on one of them
+ * sees the new quantity rather than a deleted row.
+ */
+@Service
+public class StockShardService {
+
+    public static final int MAX_SHARDS = 64;
+
+    private final StockShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final ProductCatalogCache catalogCache;
+    private final ProductChangePublisher productEvents;
+
+    public StockShardService(StockShardRepository shardRepository,
+                             ProductRepository productRepository,
+                             ProductCatalogCache catalogCache,
+                             ProductChangePublisher productEvents) {
+        this.shardRepository = shardRepository;
+        this.productRepository = productRepository;
+        this.catalogCache = catalogCache;
+        this.productEvents = productEvents;
+    }
+
+    /**
+     * Splits the product's stock over the given number of shards, or folds it
+     * back into the product row when shards is 0.
+     */
+    @Transactional
+    public Product setShards(Long productId, int shards) {
+        if (shards < 0 || shards > MAX_SHARDS) {
+            throw new RuntimeException("Shard count must be between 0 and " + MAX_SHARDS);
+        }
+        Product product = productRepository.lockById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        List<StockShard> current = shardRepository.lockByProductId(productId);
+        int total = product.getQuantity() + current.stream().mapToInt(StockShard::getQuantity).sum();
+        return redistribute(product, current, shards, total);
+    }
+
+    /** Replaces the stock of a hot product, keeping its shard layout. */
+    @Transactional
+    public Product setQuantity(Long productId, int quantity) {
+        Product product = productRepository.lockById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        return redistribute(product, shardRepository.lockByProductId(productId), product.getShardCount(), quantity);
+    }
+
+    /**
+     * Decrement path for hot products, used once the guarded row update has been
+     * rejected. Returns false when the product is not hot or is out of stock.
+     */
+    @Transactional
+    public boolean tryDecrementHot(Long productId, int quantity) {
+        int shardCount = productRepository.findShardCount(productId).orElse(0);
+        if (shardCount == 0) {
+            return false;
+        }
+        if (decrementShards(productId, shardCount, quantity)) {
+            return true;
+        }
+        // The shards may have been rewritten while this pass waited on them (setShards or setQuantity):
+        // when the stock is there after all, go over the current layout once more
+        if (productRepository.findQuantity(productId).orElse(0) + shardRepository.sumByProductId(productId) < quantity) {
+            return false;
+        }
+        shardCount = productRepository.findShardCount(productId).orElse(0);
+        return shardCount > 0 && decrementShards(productId, shardCount, quantity);
+    }
+
+    /**
+     * Takes the quantity from one shard, starting at a random shard and moving on
+     * when a shard cannot cover it, and finally from the product row itself.
+     */
+    private boolean decrementShards(Long productId, int shardCount, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (shardRepository.decrementShard(productId, (start + i) % shardCount, quantity) == 1) {
+                return true;
+            }
+        }
+        return productRepository.decrementHotRow(productId, quantity) == 1;
+    }
+
+    public int totalQuantity(Product product) {
+        return product.getQuantity() + shardRepository.sumByProductId(product.getId());
+    }
+
+    /** Shard totals per product id, for products in hot mode. */
+    public Map<Long, Integer> shardTotals(Collection<Long> productIds) {
+        Map<Long, Integer> totals = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : shardRepository.sumByProductIds(productIds)) {
+            totals.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return totals;
+    }
+
+    /**
+     * Spreads total over the shards. current must be the product's shard rows,
+     * locked by the caller so in-flight decrements are not lost; rows that stay
+     * are updated, only the ones past the new count are deleted.
+     */
+    private Product redistribute(Product product, List<StockShard> current, int shards, int total) {
+        Map<Integer, StockShard> byIndex = new HashMap<>();
+        List<StockShard> dropped = new ArrayList<>();
+        for (StockShard shard : current) {
+            if (shard.getShardIndex() < shards) {
+                byIndex.put(shard.getShardIndex(), shard);
+            } else {
+                dropped.add(shard);
+            }
+        }
+        List<StockShard> rows = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            StockShard row = byIndex.getOrDefault(i, StockShard.builder()
+                    .productId(product.getId())
+                    .shardIndex(i)
+                    .build());
+            row.setQuantity(total / shards + (i < total % shards ? 1 : 0));
+            rows.add(row);
+        }
+        shardRepository.deleteAll(dropped);
+        shardRepository.saveAll(rows);
+
+        product.setShardCount(shards);
+        product.setQuantity(shards > 0 ? 0 : total);
+        Product saved = productRepository.save(product);
+        catalogCache.evictStock(product.getId());
+        productEvents.changed(product.getId());
+        return saved.toBuilder().quantity(total).build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.product.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCatalogCacheTest {
+
+    private final ProductCatalogCache cache =
+            new ProductCatalogCache(new ObjectMapper(), new SimpleMeterRegistry(), 1 << 20, 60, 5);
+    private final AtomicInteger listLoads = new AtomicInteger();
+    private final AtomicInteger productLoads = new AtomicInteger();
+
+    @Test
+    void stockChangeDropsOnlyTheProduct() {
+        readBoth();
+        cache.evictStock(1L);
+        readBoth();
+
+        assertEquals(1, listLoads.get());
+        assertEquals(2, productLoads.get());
+    }
+
+    @Test
+    void catalogChangeRetiresListings() {
+        readBoth();
+        cache.evict(1L);
+        readBoth();
+
+        assertEquals(2, listLoads.get());
+        assertEquals(2, productLoads.get());
+    }
+
+    @Test
+    void otherProductsStayCached() {
+        cache.product(2L, () -> productLoads.incrementAndGet());
+        cache.evict(1L);
+        cache.product(2L, () -> productLoads.incrementAndGet());
+
+        assertEquals(1, productLoads.get());
+    }
+
+    private void readBoth() {
+        cache.list("page:20", () -> List.of(listLoads.incrementAndGet()));
+        cache.product(1L, () -> productLoads.incrementAndGet());
+    }
+}
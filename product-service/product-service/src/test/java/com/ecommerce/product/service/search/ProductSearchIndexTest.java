@@ -0,0 +1,131 @@
+package com.ecommerce.product.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Test
+    void prefixPrefersShortCommonCompletionsOverFirstInOrder() {
+        // 100 rare long completions that sort before the one everybody uses
+        for (long id = 1; id <= 100; id++) {
+            index.index(id, "lamaaa" + String.format("%03d", id), null);
+        }
+        for (long id = 101; id <= 105; id++) {
+            index.index(id, "lamp", null);
+        }
+
+        List<Long> found = index.search("lam", 200);
+
+        // The expansion is capped, but the cap drops the long tail instead of the closest completion
+        assertTrue(found.size() < 105, found.toString());
+        assertTrue(found.containsAll(List.of(101L, 102L, 103L, 104L, 105L)), found.toString());
+    }
+
+    @Test
+    void rememberedCompletionsFollowNewTermsAndFrequencies() {
+        // 65 completions of the same length and frequency: the cap drops the last one in term order
+        for (long id = 0; id <= 64; id++) {
+            index.index(id, "lx" + String.format("%03d", id), null);
+        }
+        assertFalse(index.search("lx", 200).contains(64L));
+
+        // Now in two products, it ranks first and another one drops out
+        index.index(100L, "lx064", null);
+        List<Long> found = index.search("lx", 200);
+        assertTrue(found.containsAll(List.of(64L, 100L)), found.toString());
+        assertFalse(found.contains(63L), found.toString());
+
+        // A new shorter completion ranks above all of them
+        index.index(101L, "lxa", null);
+        assertTrue(index.search("lx", 200).contains(101L));
+
+        index.remove(101L);
+        assertFalse(index.search("lx", 200).contains(101L));
+    }
+
+    @Test
+    void shortPrefixStaysFastOverACatalogSizedVocabulary() {
+        // 200,000 products, each with its own SKU term: every search for "sk" has 200,000 completions
+        int products = 200_000;
+        for (long id = 1; id <= products; id++) {
+            index.index(id, "Widget sku" + id, "Part " + (id % 1_000) + " of the catalog");
+        }
+
+        long started = System.nanoTime();
+        assertEquals(20, index.search("sk", 20).size());
+        long firstMicros = (System.nanoTime() - started) / 1_000;
+
+        List<String> prefixes = List.of("sk", "sku", "sku1", "sku2");
+        prefixes.forEach(prefix -> index.search(prefix, 20));
+        int searches = 2_000;
+        started = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            index.search(prefixes.get(i % prefixes.size()), 20);
+        }
+        long averageMicros = (System.nanoTime() - started) / 1_000 / searches;
+        System.out.println("Prefix search over " + products + " completions: first " + firstMicros
+                + " us, then " + averageMicros + " us on average");
+
+        // Scanning all completions costs milliseconds per search; the remembered ones a few microseconds
+        assertTrue(averageMicros < 1_000, "prefix search took " + averageMicros + " us");
+    }
+
+    @Test
+    void changedTermsLeaveNoPostingsBehind() {
+        index.index(1L, "Desk lamp", "brass");
+        index.index(1L, "Floor light", null);
+
+        assertEquals(List.of(), index.search("brass", 10));
+        assertEquals(List.of(), index.search("desk", 10));
+        assertEquals(List.of(1L), index.search("floor", 10));
+        assertEquals(2, index.termCount());
+
+        index.remove(1L);
+        assertEquals(0, index.termCount());
+    }
+
+    @Test
+    void rebuildSwapsInOnlyWhenComplete() {
+        index.index(1L, "Desk lamp", null);
+
+        index.startRebuild();
+        index.indexLoaded(2L, "Desk chair", null);
+        // Searches still use the old index while the new one fills
+        assertEquals(List.of(1L), index.search("desk", 10));
+
+        index.finishRebuild();
+        assertEquals(List.of(2L), index.search("desk", 10));
+    }
+
+    @Test
+    void rebuildKeepsWritesMadeWhileItRuns() {
+        index.startRebuild();
+        index.index(1L, "Desk lamp", null);
+        index.remove(2L);
+        // Rows the rebuild read before those writes must not win
+        index.indexLoaded(1L, "Old name", null);
+        index.indexLoaded(2L, "Deleted desk", null);
+        index.finishRebuild();
+
+        assertEquals(List.of(1L), index.search("desk", 10));
+        assertEquals(List.of(), index.search("old", 10));
+    }
+
+    @Test
+    void abortedRebuildLeavesLiveIndex() {
+        index.index(1L, "Desk lamp", null);
+
+        index.startRebuild();
+        index.abortRebuild();
+
+        assertEquals(List.of(1L), index.search("lamp", 10));
+    }
+}
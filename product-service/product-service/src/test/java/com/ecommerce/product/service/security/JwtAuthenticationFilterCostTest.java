@@ -0,0 +1,123 @@
+package com.ecommerce.product.service.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-request cost of the JWT filter, before and after parsing once with a
+ * shared parser and caching verified tokens. "Before" is the old provider:
+ * key and parser rebuilt and the token verified twice (validate, then read
+ * the username). Prints the timings and checks the gaps loosely, since they
+ * depend on the machine.
+ */
+class JwtAuthenticationFilterCostTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    private static final int REQUESTS = 20_000;
+    private static final int WARMUP = 5_000;
+
+    /** The provider as it was: a new key and parser per call, and two verifications per request. */
+    private static class ParseTwiceProvider extends JwtTokenProvider {
+
+        ParseTwiceProvider() {
+            super(1);
+        }
+
+        @Override
+        public String authenticate(String token) {
+            try {
+                Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build()
+                        .parseClaimsJws(token);
+            } catch (Exception e) {
+                return null;
+            }
+            Claims claims = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                    .build().parseClaimsJws(token).getBody();
+            return claims.getSubject();
+        }
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void filterCostBeforeAndAfter() throws Exception {
+        List<String> sameUser = List.of(token("ada@example.com"));
+        // Distinct tokens never hit the cache: what a first request with a token costs
+        List<String> warmupTokens = tokens("warmup", WARMUP);
+        List<String> distinct = tokens("user", REQUESTS);
+
+        JwtAuthenticationFilter before = new JwtAuthenticationFilter(new ParseTwiceProvider());
+        JwtAuthenticationFilter after = new JwtAuthenticationFilter(new JwtTokenProvider(REQUESTS * 2L));
+
+        double beforeRepeated = nanosPerRequest(before, sameUser, sameUser);
+        double afterRepeated = nanosPerRequest(after, sameUser, sameUser);
+        double beforeFirst = nanosPerRequest(before, warmupTokens, distinct);
+        double afterFirst = nanosPerRequest(after, warmupTokens, distinct);
+
+        System.out.printf("JWT filter, us per request: repeated token %.1f -> %.1f, new token %.1f -> %.1f%n",
+                beforeRepeated / 1_000, afterRepeated / 1_000, beforeFirst / 1_000, afterFirst / 1_000);
+
+        // A cached token skips the HMAC entirely; a new one is verified once instead of twice
+        assertTrue(afterRepeated * 3 < beforeRepeated, "cached token not cheaper: " + afterRepeated + " vs " + beforeRepeated);
+        assertTrue(afterFirst < beforeFirst, "single parse not cheaper: " + afterFirst + " vs " + beforeFirst);
+    }
+
+    private static double nanosPerRequest(JwtAuthenticationFilter filter, List<String> warmup, List<String> tokens)
+            throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            request(filter, warmup.get(i % warmup.size()));
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            request(filter, tokens.get(i % tokens.size()));
+        }
+        return (double) (System.nanoTime() - started) / REQUESTS;
+    }
+
+    private static void request(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static List<String> tokens(String prefix, int count) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tokens.add(token(prefix + i + "@example.com"));
+        }
+        return tokens;
+    }
+
+    private static String token(String subject) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(SIGNING_KEY, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.product.service.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtTokenProviderTest {
+
+    // The key client-service signs with
+    private static final Key SIGNING_KEY = Keys.hmacShaKeyFor(
+            Decoders.BASE64.decode("5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437"));
+    private static final Key OTHER_KEY = Keys.hmacShaKeyFor(
+            Decoders.BASE64.decode("4A404E635266556A586E3272357538782F413F4428472B4B6250645367566B59"));
+
+    private final JwtTokenProvider provider = new JwtTokenProvider(100);
+
+    @Test
+    void acceptsAValidTokenAgainFromTheCache() {
+        String token = token("ada@example.com", Instant.now().plus(Duration.ofHours(1)), SIGNING_KEY);
+
+        assertEquals("ada@example.com", provider.authenticate(token));
+        assertEquals("ada@example.com", provider.authenticate(token));
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        assertNull(provider.authenticate(token("ada@example.com", Instant.now().plus(Duration.ofHours(1)), OTHER_KEY)));
+    }
+
+    @Test
+    void rejectsExpiredAndMalformedTokens() {
+        assertNull(provider.authenticate(token("ada@example.com", Instant.now().minusSeconds(60), SIGNING_KEY)));
+        assertNull(provider.authenticate("not-a-jwt"));
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItExpires() throws InterruptedException {
+        // JWT exp has second precision, so leave a full second
+        Instant expiresAt = Instant.now().plusSeconds(2);
+        String token = token("ada@example.com", expiresAt, SIGNING_KEY);
+        assertEquals("ada@example.com", provider.authenticate(token));
+
+        Thread.sleep(Duration.between(Instant.now(), expiresAt).toMillis() + 100);
+
+        assertNull(provider.authenticate(token));
+    }
+
+    private static String token(String subject, Instant expiresAt, Key key) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setExpiration(Date.from(expiresAt))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProductExportServiceTest {
+
+    private static final Instant UPDATED = Instant.parse("2026-03-01T10:15:30Z");
+
+    private final ProductJdbcRepository productJdbcRepository = mock(ProductJdbcRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductExportService service = new ProductExportService(productJdbcRepository, objectMapper, 60);
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        streamRows(row(1L, "Lamp", "Desk lamp", 19.5, 4), row(2L, "Chair", null, 80.0, 0));
+
+        String[] lines = export(ProductExportService.NDJSON, null).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("Lamp", first.get("name").asText());
+        assertEquals(19.5, first.get("price").asDouble());
+        assertEquals(4, first.get("quantity").asInt());
+        assertEquals(UPDATED.toString(), first.get("updatedAt").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("description").isNull());
+    }
+
+    @Test
+    void csvQuotesFieldsThatNeedIt() throws Exception {
+        streamRows(row(1L, "Lamp, brass", "The \"good\" one", 19.5, 4), row(2L, "Chair", null, 80.0, 0));
+
+        String[] lines = export("CSV", null).split("\n");
+
+        assertEquals("id,name,description,price,quantity,reserved,available,imageUrl,updatedAt", lines[0]);
+        assertEquals("1,\"Lamp, brass\",\"The \"\"good\"\" one\",19.5,4,0,true,," + UPDATED, lines[1]);
+        assertEquals("2,Chair,,80.0,0,0,true,," + UPDATED, lines[2]);
+        assertEquals(3, lines.length);
+    }
+
+    @Test
+    void fullExportReadsEveryRow() throws Exception {
+        streamRows();
+
+        export(ProductExportService.NDJSON, null);
+
+        verify(productJdbcRepository).streamExport(isNull(), any());
+    }
+
+    @Test
+    void incrementalExportStartsTheOverlapBeforeUpdatedSince() throws Exception {
+        streamRows();
+
+        export(ProductExportService.CSV, UPDATED);
+
+        // Rows stamped just before updatedSince may have committed after the previous export
+        verify(productJdbcRepository).streamExport(eq(UPDATED.minusSeconds(60)), any());
+    }
+
+    @Test
+    void exportDoesNotCloseTheResponseStream() throws Exception {
+        streamRows(row(1L, "Lamp", null, 1.0, 1));
+        ClosingTrackingStream out = new ClosingTrackingStream();
+
+        service.export(out, ProductExportService.NDJSON, null);
+
+        assertFalse(out.closed);
+        assertTrue(out.size() > 0);
+    }
+
+    @Test
+    void unknownFormatIsABadRequest() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.export(new ByteArrayOutputStream(), "xml", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verifyNoInteractions(productJdbcRepository);
+    }
+
+    private String export(String format, Instant updatedSince) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(out, format, updatedSince);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void streamRows(ResultSet... rows) {
+        doAnswer(call -> {
+            RowCallbackHandler handler = call.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(productJdbcRepository).streamExport(any(), any());
+    }
+
+    private static ResultSet row(long id, String name, String description, double price, int quantity)
+            throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("name")).thenReturn(name);
+        when(rs.getString("description")).thenReturn(description);
+        when(rs.getDouble("price")).thenReturn(price);
+        when(rs.getInt("quantity")).thenReturn(quantity);
+        when(rs.getInt("reserved")).thenReturn(0);
+        when(rs.getBoolean("available")).thenReturn(true);
+        when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.from(UPDATED));
+        return rs;
+    }
+
+    private static final class ClosingTrackingStream extends ByteArrayOutputStream {
+
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
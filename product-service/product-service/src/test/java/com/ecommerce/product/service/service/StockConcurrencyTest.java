@@ -0,0 +1,238 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.dto.StockLine;
+import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hundreds of parallel buyers against one or several products: every path
+ * that takes stock must sell exactly what there is, never more, and a cart
+ * must take all of its lines or none. Runs against a real Postgres, since the
+ * guarantee comes from its row locks; skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.show-sql=false",
+        // Enough connections that the buyers meet on the row locks, not in the pool
+        "spring.datasource.hikari.maximum-pool-size=64"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class StockConcurrencyTest {
+
+    private static final int STOCK = 100;
+    private static final int BUYERS = 800;
+    private static final int THREADS = 128;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // Keeps the broker out of the test; events are not what is checked here
+    @MockitoBean
+    ProductChangePublisher productEvents;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    StockShardService stockShardService;
+
+    @Autowired
+    StockHoldService stockHoldService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void reduceStockNeverOversells() throws Exception {
+        Long id = newProduct().getId();
+
+        int sold = race(() -> productService.reduceStock(id, 1));
+
+        assertEquals(STOCK, sold);
+        assertEquals(0, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void reduceStockNeverOversellsHotProduct() throws Exception {
+        Long id = newProduct().getId();
+        productService.setHotMode(id, 8);
+
+        int sold = race(() -> productService.reduceStock(id, 1));
+
+        assertEquals(STOCK, sold);
+        Product product = productRepository.findById(id).orElseThrow();
+        assertEquals(0, stockShardService.totalQuantity(product));
+        assertTrue(product.getQuantity() >= 0);
+    }
+
+    @Test
+    void hotProductSellsEveryUnitWhileItsShardsAreRewritten() throws Exception {
+        Long id = newProduct().getId();
+        productService.setHotMode(id, 8);
+        AtomicBoolean racing = new AtomicBoolean(true);
+        // Moves the same stock between layouts for as long as the buyers run
+        ExecutorService rewriter = Executors.newSingleThreadExecutor();
+        Future<?> rewrites = rewriter.submit(() -> {
+            int round = 0;
+            while (racing.get()) {
+                stockShardService.setShards(id, round++ % 2 == 0 ? 4 : 16);
+            }
+        });
+
+        // Exactly one buyer per unit: a buyer refused while stock is left shows up as a missing sale
+        int sold;
+        try {
+            sold = race(STOCK, () -> productService.reduceStock(id, 1));
+        } finally {
+            racing.set(false);
+            rewrites.get(60, TimeUnit.SECONDS);
+            rewriter.shutdown();
+        }
+
+        assertEquals(STOCK, sold);
+        assertEquals(0, stockShardService.totalQuantity(productRepository.findById(id).orElseThrow()));
+    }
+
+    @Test
+    void buyersSpreadOverSeveralProductsSellEachOneOut() throws Exception {
+        List<Long> ids = List.of(newProduct().getId(), newProduct().getId(), newProduct().getId(), newProduct().getId());
+        productService.setHotMode(ids.get(3), 8);
+        Map<Long, AtomicInteger> sold = new ConcurrentHashMap<>();
+        AtomicInteger buyer = new AtomicInteger();
+
+        int total = race(ids.size() * BUYERS / 2, () -> {
+            Long id = ids.get(buyer.getAndIncrement() % ids.size());
+            productService.reduceStock(id, 1);
+            sold.computeIfAbsent(id, key -> new AtomicInteger()).incrementAndGet();
+        });
+
+        assertEquals(ids.size() * STOCK, total);
+        for (Long id : ids) {
+            assertEquals(STOCK, sold.get(id).get());
+            assertEquals(0, stockShardService.totalQuantity(productRepository.findById(id).orElseThrow()));
+        }
+    }
+
+    @Test
+    void multiLineCartsTakeAllTheirLinesOrNone() throws Exception {
+        Long a = newProduct().getId();
+        Long b = newProduct().getId();
+        Long c = newProduct().getId();
+        productService.setHotMode(c, 4);
+        // Overlapping carts, lines in different orders: without a fixed lock order these deadlock
+        List<List<StockLine>> carts = List.of(
+                List.of(new StockLine(a, 1), new StockLine(b, 2)),
+                List.of(new StockLine(b, 1), new StockLine(c, 1), new StockLine(a, 1)),
+                List.of(new StockLine(c, 2), new StockLine(a, 1)));
+        Map<Long, AtomicInteger> sold = new ConcurrentHashMap<>();
+        AtomicInteger buyer = new AtomicInteger();
+
+        int succeeded = race(() -> {
+            List<StockLine> cart = carts.get(buyer.getAndIncrement() % carts.size());
+            productService.reserveStock(cart);
+            cart.forEach(line -> sold.computeIfAbsent(line.productId(), key -> new AtomicInteger())
+                    .addAndGet(line.quantity()));
+        });
+
+        assertTrue(succeeded > 0);
+        int lowest = STOCK;
+        for (Long id : List.of(a, b, c)) {
+            int left = stockShardService.totalQuantity(productRepository.findById(id).orElseThrow());
+            // A partly applied cart would leave less stock than the successful carts account for
+            assertEquals(STOCK - sold.getOrDefault(id, new AtomicInteger()).get(), left);
+            assertTrue(left >= 0);
+            lowest = Math.min(lowest, left);
+        }
+        // Far more carts than stock: the refusals must be because a line ran out
+        assertTrue(lowest < 2, "carts refused while every product had stock: " + lowest);
+    }
+
+    @Test
+    void holdsNeverReserveMoreThanTheStock() throws Exception {
+        Long id = newProduct().getId();
+        AtomicInteger reference = new AtomicInteger();
+
+        int held = race(() -> stockHoldService.hold("race-" + reference.incrementAndGet(),
+                List.of(new StockLine(id, 1)), 60L));
+
+        assertEquals(STOCK, held);
+        Product product = productRepository.findById(id).orElseThrow();
+        assertEquals(0, product.getQuantity());
+        assertEquals(STOCK, product.getReserved());
+    }
+
+    private Product newProduct() {
+        return productRepository.save(Product.builder()
+                .name("Race " + System.nanoTime())
+                .price(10.0)
+                .quantity(STOCK)
+                .available(true)
+                .build());
+    }
+
+    private int race(Runnable buy) throws Exception {
+        return race(BUYERS, buy);
+    }
+
+    /** Runs the attempts at once and returns how many succeeded; the rest must fail on stock. */
+    private int race(int buyers, Runnable buy) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        Callable<Boolean> attempt = () -> {
+            start.await();
+            try {
+                buy.run();
+                return true;
+            } catch (RuntimeException e) {
+                assertTrue(String.valueOf(e.getMessage()).contains("Insufficient stock"), e.toString());
+                return false;
+            }
+        };
+        for (int i = 0; i < buyers; i++) {
+            attempts.add(pool.submit(attempt));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Boolean> result : attempts) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+}
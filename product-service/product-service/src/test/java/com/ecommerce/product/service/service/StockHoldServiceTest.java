@@ -0,0 +1,104 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.dto.StockLine;
+import com.ecommerce.product.service.model.StockHold;
+import com.ecommerce.product.service.repository.ProductJdbcRepository;
+import com.ecommerce.product.service.repository.StockHoldRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockHoldServiceTest {
+
+    private final StockHoldRepository holdRepository = mock(StockHoldRepository.class);
+    private final ProductJdbcRepository productJdbcRepository = mock(ProductJdbcRepository.class);
+    private final StockShardService stockShardService = mock(StockShardService.class);
+    private final StockHoldService service = new StockHoldService(holdRepository, productJdbcRepository,
+            stockShardService, mock(ProductCatalogCache.class), mock(ProductChangePublisher.class), 900);
+
+    @Test
+    void holdRecordsThePriceAtHoldTime() {
+        when(holdRepository.findByReference("order-42")).thenReturn(List.of());
+        when(productJdbcRepository.holdStock(List.of(new StockLine(3L, 2)))).thenReturn(new int[]{1});
+        when(productJdbcRepository.findPrices(List.of(3L))).thenReturn(Map.of(3L, 12.5));
+        when(holdRepository.saveAll(anyList())).thenAnswer(call -> call.getArgument(0));
+
+        List<StockHold> holds = service.hold("order-42", List.of(new StockLine(3L, 2)), null);
+
+        assertEquals(12.5, holds.get(0).getUnitPrice());
+        assertEquals(StockHold.HELD, holds.get(0).getStatus());
+    }
+
+    @Test
+    void confirmsHeldStock() {
+        when(holdRepository.findByReference("order-42")).thenReturn(List.of(hold(1L, StockHold.HELD)));
+        when(holdRepository.closeHold(1L, StockHold.CONFIRMED)).thenReturn(1);
+
+        List<StockHold> holds = service.confirm("order-42");
+
+        assertEquals(StockHold.CONFIRMED, holds.get(0).getStatus());
+        verify(productJdbcRepository).confirmHeld(List.of(new StockLine(3L, 2)));
+        verify(productJdbcRepository, never()).decrementStock(anyList());
+    }
+
+    @Test
+    void expiredHoldIsConfirmedFromTheRemainingStock() {
+        when(holdRepository.findByReference("order-42")).thenReturn(List.of(hold(1L, StockHold.EXPIRED)));
+        when(holdRepository.confirmExpired(1L)).thenReturn(1);
+        when(productJdbcRepository.decrementStock(List.of(new StockLine(3L, 2)))).thenReturn(new int[]{1});
+
+        List<StockHold> holds = service.confirm("order-42");
+
+        assertEquals(StockHold.CONFIRMED, holds.get(0).getStatus());
+        verify(productJdbcRepository, never()).confirmHeld(anyList());
+    }
+
+    @Test
+    void expiredHoldWhoseStockIsGoneIsRefused() {
+        when(holdRepository.findByReference("order-42")).thenReturn(List.of(hold(1L, StockHold.EXPIRED)));
+        when(holdRepository.confirmExpired(1L)).thenReturn(1);
+        when(productJdbcRepository.decrementStock(anyList())).thenReturn(new int[]{0});
+        when(stockShardService.tryDecrementHot(anyLong(), anyInt())).thenReturn(false);
+
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class, () -> service.confirm("order-42"));
+
+        assertEquals(HttpStatus.CONFLICT, refused.getStatusCode());
+    }
+
+    @Test
+    void releasedHoldIsRefused() {
+        when(holdRepository.findByReference("order-42")).thenReturn(List.of(hold(1L, StockHold.RELEASED)));
+
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class, () -> service.confirm("order-42"));
+
+        assertEquals(HttpStatus.CONFLICT, refused.getStatusCode());
+        verify(productJdbcRepository, never()).decrementStock(anyList());
+    }
+
+    @Test
+    void unknownReferenceIsNotFound() {
+        when(holdRepository.findByReference("order-42")).thenReturn(List.of());
+
+        ResponseStatusException refused = assertThrows(ResponseStatusException.class, () -> service.confirm("order-42"));
+
+        assertEquals(HttpStatus.NOT_FOUND, refused.getStatusCode());
+    }
+
+    private static StockHold hold(Long id, String status) {
+        return StockHold.builder().id(id).reference("order-42").productId(3L).quantity(2).status(status).build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.cache.ProductCatalogCache;
+import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.model.StockShard;
+import com.ecommerce.product.service.repository.ProductRepository;
+import com.ecommerce.product.service.repository.StockShardRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockShardServiceTest {
+
+    private final StockShardRepository shardRepository = mock(StockShardRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StockShardService service = new StockShardService(shardRepository, productRepository,
+            mock(ProductCatalogCache.class), mock(ProductChangePublisher.class));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shrinkingUpdatesTheRemainingShardsInPlace() {
+        Product product = Product.builder().id(3L).quantity(2).shardCount(4).build();
+        List<StockShard> current = shards(3L, 5, 5, 5, 5);
+        when(productRepository.lockById(3L)).thenReturn(Optional.of(product));
+        when(shardRepository.lockByProductId(3L)).thenReturn(current);
+        when(productRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+
+        Product saved = service.setShards(3L, 2);
+
+        ArgumentCaptor<List<StockShard>> kept = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<StockShard>> dropped = ArgumentCaptor.forClass(List.class);
+        verify(shardRepository).saveAll(kept.capture());
+        verify(shardRepository).deleteAll(dropped.capture());
+        // The same rows, so a decrement waiting on their locks sees the new quantity
+        assertSame(current.get(0), kept.getValue().get(0));
+        assertSame(current.get(1), kept.getValue().get(1));
+        assertEquals(11, current.get(0).getQuantity());
+        assertEquals(11, current.get(1).getQuantity());
+        assertEquals(List.of(current.get(2), current.get(3)), dropped.getValue());
+        assertEquals(22, saved.getQuantity());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void growingKeepsTheExistingShardsAndAddsNewOnes() {
+        Product product = Product.builder().id(3L).quantity(0).shardCount(2).build();
+        List<StockShard> current = shards(3L, 6, 6);
+        when(productRepository.lockById(3L)).thenReturn(Optional.of(product));
+        when(shardRepository.lockByProductId(3L)).thenReturn(current);
+        when(productRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+
+        service.setQuantity(3L, 40);
+        service.setShards(3L, 4);
+
+        ArgumentCaptor<List<StockShard>> kept = ArgumentCaptor.forClass(List.class);
+        verify(shardRepository, times(2)).saveAll(kept.capture());
+        List<StockShard> rows = kept.getAllValues().get(1);
+        assertEquals(4, rows.size());
+        assertSame(current.get(0), rows.get(0));
+        assertSame(current.get(1), rows.get(1));
+        assertEquals(List.of(10, 10, 10, 10), rows.stream().map(StockShard::getQuantity).toList());
+        assertEquals(3, rows.get(3).getShardIndex());
+    }
+
+    @Test
+    void failedPassIsRetriedWhenTheStockIsThere() {
+        // First pass ran against the old layout of 2 shards; the product now has 4
+        when(productRepository.findShardCount(3L)).thenReturn(Optional.of(2), Optional.of(4));
+        when(productRepository.findQuantity(3L)).thenReturn(Optional.of(0));
+        when(shardRepository.sumByProductId(3L)).thenReturn(8);
+        when(shardRepository.decrementShard(eq(3L), eq(3), eq(1))).thenReturn(1);
+
+        assertTrue(service.tryDecrementHot(3L, 1));
+    }
+
+    @Test
+    void soldOutHotProductIsNotRetried() {
+        when(productRepository.findShardCount(3L)).thenReturn(Optional.of(2));
+        when(productRepository.findQuantity(3L)).thenReturn(Optional.of(0));
+        when(shardRepository.sumByProductId(3L)).thenReturn(0);
+
+        assertFalse(service.tryDecrementHot(3L, 1));
+        verify(shardRepository, times(2)).decrementShard(eq(3L), anyInt(), eq(1));
+    }
+
+    @Test
+    void regularProductIsLeftToTheCaller() {
+        when(productRepository.findShardCount(3L)).thenReturn(Optional.of(0));
+
+        assertFalse(service.tryDecrementHot(3L, 1));
+        verify(shardRepository, never()).decrementShard(any(), anyInt(), anyInt());
+    }
+
+    private static List<StockShard> shards(Long productId, int... quantities) {
+        List<StockShard> shards = new ArrayList<>();
+        for (int i = 0; i < quantities.length; i++) {
+            shards.add(StockShard.builder().id(100L + i).productId(productId).shardIndex(i).quantity(quantities[i]).build());
+        }
+        return shards;
+    }
+}
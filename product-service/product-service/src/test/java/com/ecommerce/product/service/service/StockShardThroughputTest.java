@@ -0,0 +1,117 @@
+package com.ecommerce.product.service.service;
+
+import com.ecommerce.product.service.model.Product;
+import com.ecommerce.product.service.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sales per second on one product with 1, 8 and 64 parallel buyers, with the
+ * stock in the product row and spread over shards. Prints the comparison;
+ * only the stock accounting is asserted, since timings depend on the machine.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.hikari.maximum-pool-size=70"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class StockShardThroughputTest {
+
+    private static final int[] BUYERS = {1, 8, 64};
+    private static final int SHARDS = 16;
+    private static final int SALES_PER_RUN = 3_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "max_connections=200");
+
+    // Keeps the broker out of the test; events are not what is measured here
+    @MockitoBean
+    ProductChangePublisher productEvents;
+
+    @Autowired
+    ProductService productService;
+
+    @Autowired
+    StockShardService stockShardService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @Test
+    void shardedVersusUnshardedThroughput() throws Exception {
+        // Warm up connections and JIT so the first measured run is not penalised
+        run(newProduct(0), 8);
+
+        StringBuilder report = new StringBuilder("\nbuyers  unsharded/s  sharded(" + SHARDS + ")/s\n");
+        for (int buyers : BUYERS) {
+            double unsharded = run(newProduct(0), buyers);
+            double sharded = run(newProduct(SHARDS), buyers);
+            report.append(String.format("%6d  %11.0f  %14.0f%n", buyers, unsharded, sharded));
+        }
+        System.out.println(report);
+    }
+
+    private Long newProduct(int shards) {
+        Long id = productRepository.save(Product.builder()
+                .name("Throughput " + System.nanoTime())
+                .price(10.0)
+                .quantity(SALES_PER_RUN)
+                .available(true)
+                .build()).getId();
+        if (shards > 0) {
+            productService.setHotMode(id, shards);
+        }
+        return id;
+    }
+
+    /** Sells the whole stock one unit at a time with the given number of buyers; returns sales per second. */
+    private double run(Long id, int buyers) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        try {
+            for (int b = 0; b < buyers; b++) {
+                int sales = SALES_PER_RUN / buyers + (b < SALES_PER_RUN % buyers ? 1 : 0);
+                runs.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < sales; i++) {
+                        productService.reduceStock(id, 1);
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get(5, TimeUnit.MINUTES);
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            assertEquals(0, stockShardService.totalQuantity(productRepository.findById(id).orElseThrow()));
+            return SALES_PER_RUN / seconds;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}